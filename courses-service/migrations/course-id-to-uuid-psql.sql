@@ -0,0 +1,7 @@
+-- Switches an existing courses table to binary ids (app.ids.storage=binary): course_id VARCHAR(36) -> UUID.
+-- Rewrites the table and rebuilds the unique index on course_id; run it before starting the service with binary-ids.
+-- Rows whose course_id isn't a UUID make it fail, and nothing is changed.
+ALTER TABLE courses ALTER COLUMN course_id TYPE UUID USING course_id::uuid;
+
+-- Back to string ids:
+-- ALTER TABLE courses ALTER COLUMN course_id TYPE VARCHAR(36) USING course_id::text;
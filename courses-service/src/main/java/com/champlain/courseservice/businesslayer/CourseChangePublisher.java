@@ -0,0 +1,63 @@
+package com.champlain.courseservice.businesslayer;
+
+import com.champlain.courseservice.presentationlayer.CourseChangeEvent;
+import com.champlain.courseservice.presentationlayer.CourseResponseModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+/*
+   Publishes every add/update/delete so that other services can keep a local replica of the catalog.
+   Subscribers only get the changes made after they subscribed, plus a heartbeat so they can tell a quiet
+   feed from a broken one.
+   Each subscriber buffers up to maxBuffered changes of its own. One that falls further behind has its feed ended
+   with an overflow error instead of silently missing changes, and a replica whose feed ends bootstraps again.
+ */
+@Component
+@Slf4j
+public class CourseChangePublisher {
+
+    //never drops, the per-subscriber buffers of changes() always have demand
+    private final Sinks.Many<CourseChangeEvent> changes = Sinks.many().multicast().directBestEffort();
+    private final Duration heartbeatInterval;
+    private final int maxBuffered;
+
+    public CourseChangePublisher(@Value("${app.courses.changes.heartbeat-interval:5s}") Duration heartbeatInterval,
+                                 @Value("${app.courses.changes.max-buffered:10000}") int maxBuffered) {
+        this.heartbeatInterval = heartbeatInterval;
+        this.maxBuffered = maxBuffered;
+    }
+
+    public void courseAdded(CourseResponseModel course) {
+        publish(CourseChangeEvent.added(course));
+    }
+
+    public void courseUpdated(CourseResponseModel course) {
+        publish(CourseChangeEvent.updated(course));
+    }
+
+    public void courseDeleted(CourseResponseModel course) {
+        publish(CourseChangeEvent.deleted(course));
+    }
+
+    public Flux<CourseChangeEvent> changes() {
+        //merge prefetches a single event, so a subscriber's changes wait in its buffer and nowhere else
+        return Flux.merge(1,
+                changes.asFlux().onBackpressureBuffer(maxBuffered, BufferOverflowStrategy.ERROR),
+                //the first heartbeat right away, it tells the subscriber its subscription is live
+                //a subscriber that isn't reading doesn't need the heartbeats it missed
+                Flux.interval(Duration.ZERO, heartbeatInterval)
+                        .onBackpressureDrop()
+                        .map(i -> CourseChangeEvent.heartbeat()));
+    }
+
+    private void publish(CourseChangeEvent event) {
+        log.debug("Publishing course change: {} {}", event.type(), event.courseId());
+        changes.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.champlain.courseservice.businesslayer;
 
+import com.champlain.courseservice.presentationlayer.CourseChangeEvent;
 import com.champlain.courseservice.presentationlayer.CourseRequestModel;
 import com.champlain.courseservice.presentationlayer.CourseResponseModel;
 import reactor.core.publisher.Flux;
@@ -15,5 +16,6 @@ public interface CourseService {
     Mono<CourseResponseModel> addCourse(Mono<CourseRequestModel> requestModel);
     Mono<CourseResponseModel> updateCourse(Mono<CourseRequestModel> courseRequestModel, String courseId);
     Mono<CourseResponseModel> deleteCourseByCourseId (String courseId);
+    Flux<CourseChangeEvent> getCourseChanges();
 //    Mono<CourseResponseModel> addCourse(Mono<CourseRequestModel> requestModel);
 }
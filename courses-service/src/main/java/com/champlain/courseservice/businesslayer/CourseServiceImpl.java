@@ -1,7 +1,9 @@
 package com.champlain.courseservice.businesslayer;
 
+import com.champlain.courseservice.dataaccesslayer.Course;
 import com.champlain.courseservice.dataaccesslayer.CourseRepository;
 import com.champlain.courseservice.mapper.EntityModelMapper;
+import com.champlain.courseservice.presentationlayer.CourseChangeEvent;
 import com.champlain.courseservice.presentationlayer.CourseRequestModel;
 import com.champlain.courseservice.presentationlayer.CourseResponseModel;
 import lombok.extern.slf4j.Slf4j;
@@ -14,9 +16,11 @@ import reactor.core.publisher.Mono;
 public class CourseServiceImpl implements CourseService {
 
     private final CourseRepository courseRepository;
+    private final CourseChangePublisher courseChangePublisher;
 
-    public CourseServiceImpl(CourseRepository courseRepository){
+    public CourseServiceImpl(CourseRepository courseRepository, CourseChangePublisher courseChangePublisher){
         this.courseRepository = courseRepository;
+        this.courseChangePublisher = courseChangePublisher;
     }
 
     @Override
@@ -27,7 +31,7 @@ public class CourseServiceImpl implements CourseService {
 
     @Override
     public Mono<CourseResponseModel> getCourseByCourseId(String courseId) {
-        return courseRepository.findCourseByCourseId(courseId)
+        return findCourse(courseId)
                 .doOnNext(c -> log.debug("Course found has id: {}", c.getCourseId()))
                 .map(EntityModelMapper::toModel);
     }
@@ -39,26 +43,39 @@ public class CourseServiceImpl implements CourseService {
         return requestModel
                 .map(EntityModelMapper::toEntity)
                 .flatMap(courseRepository::save)
-                .map(EntityModelMapper::toModel);
+                .map(EntityModelMapper::toModel)
+                .doOnNext(courseChangePublisher::courseAdded);
     }
 
     @Override
     public Mono<CourseResponseModel> updateCourse(Mono<CourseRequestModel> courseRequestModel, String courseId) {
-        return courseRepository.findCourseByCourseId(courseId)
+        return findCourse(courseId)
                 .flatMap(found -> courseRequestModel
                         .map(EntityModelMapper::toEntity)
-                        .doOnNext(e -> e.setCourseId(courseId))
+                        .doOnNext(e -> e.setCourseId(found.getCourseId()))
                         .doOnNext(e -> e.setId(found.getId()))
                         )
                 .flatMap(courseRepository::save)
-                .map(EntityModelMapper::toModel);
+                .map(EntityModelMapper::toModel)
+                .doOnNext(courseChangePublisher::courseUpdated);
     }
     @Override
     public Mono<CourseResponseModel> deleteCourseByCourseId(String courseId){
-        return courseRepository.findCourseByCourseId(courseId)
+        return findCourse(courseId)
                 .flatMap(found -> courseRepository.delete(found)
                 .then(Mono.just(found))) //create a new mono using the found entity
-                .map(EntityModelMapper::toModel);
+                .map(EntityModelMapper::toModel)
+                .doOnNext(courseChangePublisher::courseDeleted);
+    }
+
+    @Override
+    public Flux<CourseChangeEvent> getCourseChanges() {
+        return courseChangePublisher.changes();
+    }
+
+    private Mono<Course> findCourse(String courseId) {
+        return Mono.justOrEmpty(EntityModelMapper.toCourseId(courseId))
+                .flatMap(courseRepository::findCourseByCourseId);
     }
 
 }
@@ -7,6 +7,8 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.relational.core.mapping.Table;
 
+import java.util.UUID;
+
 @Data
 @Builder
 @Table(name = "courses")
@@ -16,7 +18,8 @@ public class Course {
 
     @Id
     private Integer id;
-    private String courseId;
+    //VARCHAR(36) or, with app.ids.storage=binary, a native 16 byte UUID column (see IdStorageConfig)
+    private UUID courseId;
     private String courseNumber;
     private String courseName;
     private Integer numHours;
@@ -5,8 +5,10 @@ import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 @Repository
 public interface CourseRepository extends ReactiveCrudRepository<Course,Integer> {
 
-    Mono<Course> findCourseByCourseId(String courseId);
+    Mono<Course> findCourseByCourseId(UUID courseId);
 }
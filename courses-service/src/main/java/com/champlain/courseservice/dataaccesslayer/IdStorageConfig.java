@@ -0,0 +1,43 @@
+package com.champlain.courseservice.dataaccesslayer;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+
+import java.util.List;
+import java.util.UUID;
+
+/*
+   How course_id is stored, app.ids.storage:
+   - string (default): VARCHAR(36), the canonical form, as in schema-psql.sql
+   - binary: a native UUID column, 16 bytes instead of 37, see schema-psql-binary.sql and the binary-ids profile.
+     Existing tables are converted with migrations/course-id-to-uuid-psql.sql
+   The driver binds and reads java.util.UUID as is, so only the string storage needs a converter on the way in
+   (on the way out the VARCHAR is parsed by the default conversion service).
+ */
+@Configuration
+public class IdStorageConfig {
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(ConnectionFactory connectionFactory,
+                                                         @Value("${app.ids.storage:string}") String idStorage) {
+        List<Converter<?, ?>> converters = "binary".equals(idStorage)
+                ? List.of()
+                : List.of(new UuidToStringConverter());
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(connectionFactory), converters);
+    }
+
+    @WritingConverter
+    static class UuidToStringConverter implements Converter<UUID, String> {
+
+        @Override
+        public String convert(UUID source) {
+            return source.toString();
+        }
+    }
+}
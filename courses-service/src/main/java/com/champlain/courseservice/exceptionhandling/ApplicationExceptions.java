@@ -7,24 +7,30 @@ import reactor.core.publisher.Mono;
 
 public class ApplicationExceptions {
 
+    //errors without a variable part are stackless and immutable, so one instance of each is shared by every request
+    private static final InvalidInputException MISSING_COURSE_NUMBER = new InvalidInputException("Course number is required");
+    private static final InvalidInputException MISSING_COURSE_NAME = new InvalidInputException("Course name is required");
+    private static final InvalidInputException INVALID_COURSE_CREDITS = new InvalidInputException("Course credits must be greater than 0");
+    private static final InvalidInputException INVALID_COURSE_HOURS = new InvalidInputException("Course hours must be greater than 0");
+
     public static <T> Mono<T> courseNotFound(String courseId) {
         return Mono.error(new CourseNotFoundException(courseId));
     }
 
     public static <T> Mono<T> missingCourseNumber() {
-        return Mono.error(new InvalidInputException("Course number is required"));
+        return Mono.error(MISSING_COURSE_NUMBER);
     }
 
     public static <T> Mono<T> missingCourseName() {
-        return Mono.error(new InvalidInputException("Course name is required"));
+        return Mono.error(MISSING_COURSE_NAME);
     }
 
     public static <T> Mono<T> invalidCourseCredits() {
-        return Mono.error(new InvalidInputException("Course credits must be greater than 0"));
+        return Mono.error(INVALID_COURSE_CREDITS);
     }
 
     public static <T> Mono<T> invalidCourseHours() {
-        return Mono.error(new InvalidInputException("Course hours must be greater than 0"));
+        return Mono.error(INVALID_COURSE_HOURS);
     }
 
     public static <T> Mono<T> invalidCourseId(String courseId) {
@@ -1,6 +1,6 @@
 package com.champlain.courseservice.exceptionhandling.exceptions;
 
-public class CourseNotFoundException extends RuntimeException{
+public class CourseNotFoundException extends StacklessException {
 
     private static final String MESSAGE = "Course with id=%s is not found";
 
@@ -0,0 +1,25 @@
+package com.champlain.courseservice.exceptionhandling.exceptions;
+
+/*
+   Base of the course errors mapped to a 404 or 422 by GlobalControllerExceptionHandler.
+   Only the message reaches the response, so the stack trace is never filled in, and with suppression off
+   the constant validation errors are allocated once in ApplicationExceptions.
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    protected StacklessException() {
+        super(null, null, false, false);
+    }
+
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected StacklessException(Throwable cause) {
+        super(cause == null ? null : cause.toString(), cause, false, false);
+    }
+
+    protected StacklessException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
@@ -4,13 +4,14 @@ import com.champlain.courseservice.dataaccesslayer.Course;
 import com.champlain.courseservice.presentationlayer.CourseRequestModel;
 import com.champlain.courseservice.presentationlayer.CourseResponseModel;
 
+import java.util.Optional;
 import java.util.UUID;
 
 public class EntityModelMapper {
 
     public static CourseResponseModel toModel(Course course){
         return new CourseResponseModel(
-                course.getCourseId(),
+                course.getCourseId().toString(),
                 course.getCourseNumber(),
                 course.getCourseName(),
                 course.getNumHours(),
@@ -21,7 +22,7 @@ public class EntityModelMapper {
 
     public static Course toEntity(CourseRequestModel courseRequestModel) {
         var course = new Course();
-        course.setCourseId(generateUUIDString());
+        course.setCourseId(UuidV7Generator.next());
         course.setCourseNumber(courseRequestModel.courseNumber());
         course.setCourseName(courseRequestModel.courseName());
         course.setNumHours(courseRequestModel.numHours());
@@ -31,8 +32,12 @@ public class EntityModelMapper {
 
     }
 
-
-    private static String generateUUIDString(){
-        return UUID.randomUUID().toString();
+    //ids in the REST api stay strings; one that isn't a UUID can't match any course
+    public static Optional<UUID> toCourseId(String courseId) {
+        try {
+            return Optional.of(UUID.fromString(courseId));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 }
@@ -0,0 +1,30 @@
+package com.champlain.courseservice.presentationlayer;
+
+//one entry of the course change feed, course is null for DELETED and HEARTBEAT
+public record CourseChangeEvent(ChangeType type,
+                                String courseId,
+                                CourseResponseModel course) {
+
+    public enum ChangeType {
+        ADDED,
+        UPDATED,
+        DELETED,
+        HEARTBEAT
+    }
+
+    public static CourseChangeEvent added(CourseResponseModel course) {
+        return new CourseChangeEvent(ChangeType.ADDED, course.courseId(), course);
+    }
+
+    public static CourseChangeEvent updated(CourseResponseModel course) {
+        return new CourseChangeEvent(ChangeType.UPDATED, course.courseId(), course);
+    }
+
+    public static CourseChangeEvent deleted(CourseResponseModel course) {
+        return new CourseChangeEvent(ChangeType.DELETED, course.courseId(), null);
+    }
+
+    public static CourseChangeEvent heartbeat() {
+        return new CourseChangeEvent(ChangeType.HEARTBEAT, null, null);
+    }
+}
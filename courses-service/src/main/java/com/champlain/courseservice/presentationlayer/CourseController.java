@@ -4,6 +4,7 @@ import com.champlain.courseservice.businesslayer.CourseService;
 import com.champlain.courseservice.exceptionhandling.ApplicationExceptions;
 import com.champlain.courseservice.validation.RequestValidator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,13 +29,24 @@ public class CourseController {
         return courseService.getAllCourses();
     }
 
+    //change feed for replicas of the catalog, see CourseChangePublisher
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<CourseChangeEvent> getCourseChanges() {
+        return courseService.getCourseChanges();
+    }
+
     @GetMapping("{courseId}")
-    public Mono<ResponseEntity<CourseResponseModel>> getCourseByCourseId(@PathVariable String courseId) {
+    public Mono<ResponseEntity<CourseResponseModel>> getCourseByCourseId(@PathVariable String courseId,
+                                                                         @RequestHeader HttpHeaders headers) {
         return Mono.just(courseId)
                 .filter(id -> id.length() == 36)
                 .switchIfEmpty(ApplicationExceptions.invalidCourseId(courseId))
                 .flatMap(courseService::getCourseByCourseId)
-                .map(ResponseEntity::ok)
+                //a request whose If-None-Match matches the ETag gets a 304 without the body
+                .map(course -> ResponseEntity.ok()
+                        .eTag(eTag(course, ETags.negotiated(headers.getAccept()), ETags.contentCoding(headers)))
+                        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                        .body(course))
                 .switchIfEmpty(ApplicationExceptions.courseNotFound(courseId));
     }
 
@@ -72,5 +84,10 @@ public class CourseController {
                 .map(ResponseEntity::ok)
                 .switchIfEmpty(ApplicationExceptions.courseNotFound(courseId));
     }
+
+    private static String eTag(CourseResponseModel course, MediaType mediaType, String contentCoding) {
+        return ETags.strong(mediaType, contentCoding, course.courseId(), course.courseNumber(), course.courseName(),
+                course.numHours(), course.numCredits(), course.department());
+    }
 }
 
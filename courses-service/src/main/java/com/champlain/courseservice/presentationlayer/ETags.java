@@ -0,0 +1,107 @@
+package com.champlain.courseservice.presentationlayer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/*
+   ETag of a course, hashed from its field values and the media type of the body rather than from the body itself.
+   CourseController puts it on the ResponseEntity, and WebFlux then turns a GET with a matching
+   If-None-Match into a bodiless 304 (enrollments-service revalidates its copies of courses that way).
+   The ETag is strong, so it has to change with the bytes: JSON and Smile, and a body gzipped or deflated by
+   server.compression, are different representations with different ETags (and the response varies by Accept and
+   Accept-Encoding). Whether the body is compressed also depends on its size, which the hashed values determine.
+ */
+public final class ETags {
+
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    //what a response of a method without produces is written in, WebFlux prefers them in this order
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, SMILE);
+
+    private ETags() {
+    }
+
+    //the media type WebFlux will pick for the Accept header, the most specific accepted type it can write
+    public static MediaType negotiated(List<MediaType> accept) {
+        List<MediaType> accepted = new ArrayList<>(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptable : accepted) {
+            for (MediaType producible : PRODUCIBLE) {
+                if (acceptable.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    //the content coding Reactor Netty compresses with for the Accept-Encoding header: gzip, else deflate, else none
+    public static String contentCoding(HttpHeaders requestHeaders) {
+        double gzip = -1;
+        double deflate = -1;
+        double any = -1;
+        for (String header : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.trim().split(";");
+                double q = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            q = Double.parseDouble(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            q = 0;
+                        }
+                    }
+                }
+                switch (parts[0].trim().toLowerCase()) {
+                    case "gzip" -> gzip = q;
+                    case "deflate" -> deflate = q;
+                    case "*" -> any = q;
+                    default -> {
+                    }
+                }
+            }
+        }
+        if (gzip > 0 || deflate > 0) {
+            return gzip >= deflate ? "gzip" : "deflate";
+        }
+        if (any > 0 && gzip == -1) {
+            return "gzip";
+        }
+        if (any > 0 && deflate == -1) {
+            return "deflate";
+        }
+        return "identity";
+    }
+
+    public static String strong(MediaType mediaType, String contentCoding, Object... values) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(mediaType.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(contentCoding.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        for (Object value : values) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            //separator, so ("ab", "c") and ("a", "bc") don't hash the same
+            digest.update((byte) 0);
+        }
+        //128 of the 256 bits are plenty to tell versions of one resource apart
+        byte[] hash = digest.digest();
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+    }
+}
@@ -0,0 +1,55 @@
+package com.champlain.courseservice.presentationlayer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/*
+   enrollments-service sends the milliseconds its caller has left in X-Request-Timeout. A request arriving with
+   none left isn't handled, one still running when they run out is cancelled, its R2DBC query with it,
+   and both are answered 504. Requests without the header, the change feed among them, run as before.
+ */
+@Component
+public class RequestDeadlineFilter implements WebFilter {
+
+    public static final String HEADER = "X-Request-Timeout";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Long timeoutMillis = timeoutMillis(exchange.getRequest().getHeaders().getFirst(HEADER));
+        if (timeoutMillis == null) {
+            return chain.filter(exchange);
+        }
+        if (timeoutMillis <= 0) {
+            return deadlineExceeded(exchange);
+        }
+        return chain.filter(exchange)
+                .timeout(Duration.ofMillis(timeoutMillis), Mono.defer(() -> deadlineExceeded(exchange)));
+    }
+
+    //null when the header is missing or not a number
+    private static Long timeoutMillis(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static Mono<Void> deadlineExceeded(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (!response.isCommitted()) {
+            response.setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        }
+        return response.setComplete();
+    }
+}
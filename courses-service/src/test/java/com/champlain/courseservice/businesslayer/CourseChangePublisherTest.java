@@ -0,0 +1,49 @@
+package com.champlain.courseservice.businesslayer;
+
+import com.champlain.courseservice.presentationlayer.CourseChangeEvent;
+import com.champlain.courseservice.presentationlayer.CourseResponseModel;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CourseChangePublisherTest {
+
+    //heartbeats other than the first one stay out of the way
+    private final CourseChangePublisher courseChangePublisher = new CourseChangePublisher(Duration.ofHours(1), 5);
+
+    private void addCourses(int count) {
+        IntStream.range(0, count).forEach(i -> courseChangePublisher.courseAdded(new CourseResponseModel(
+                UUID.randomUUID().toString(), "420-N45-LA", "Web Services", 45, 3.0, "Computer Science")));
+    }
+
+    @Test
+    public void whenSubscriberFallsBehindWithinItsBuffer_thenItGetsEveryChange() {
+        StepVerifier.create(courseChangePublisher.changes(), 0)
+                .recordWith(ArrayList::new)
+                .then(() -> addCourses(5))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(6)
+                .consumeRecordedWith(events -> assertEquals(5, events.stream()
+                        .filter(event -> event.type() == CourseChangeEvent.ChangeType.ADDED)
+                        .count()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void whenSubscriberFallsBehindItsBuffer_thenItsFeedEndsWithAnOverflow() {
+        StepVerifier.create(courseChangePublisher.changes(), 0)
+                .then(() -> addCourses(10))
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(event -> true)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -2,7 +2,9 @@ package com.champlain.courseservice.businesslayer;
 
 import com.champlain.courseservice.dataaccesslayer.Course;
 import com.champlain.courseservice.dataaccesslayer.CourseRepository;
+import com.champlain.courseservice.exceptionhandling.exceptions.CourseNotFoundException;
 import com.champlain.courseservice.mapper.EntityModelMapper;
+import com.champlain.courseservice.presentationlayer.CourseController;
 import com.champlain.courseservice.presentationlayer.CourseRequestModel;
 import com.champlain.courseservice.presentationlayer.CourseResponseModel;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -19,7 +23,8 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static reactor.core.Disposables.never;
 
@@ -32,9 +37,12 @@ class CourseServiceUnitTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private CourseChangePublisher courseChangePublisher;
+
     Course course1 = Course.builder()
             .id(1)
-            .courseId(UUID.randomUUID().toString())
+            .courseId(UUID.randomUUID())
             .courseNumber("1cat-422")
             .courseName("Web Services 1")
             .numHours(45)
@@ -44,7 +52,7 @@ class CourseServiceUnitTest {
 
     Course course2 = Course.builder()
             .id(2)
-            .courseId(UUID.randomUUID().toString())
+            .courseId(UUID.randomUUID())
             .courseNumber("2cat-423")
             .courseName("Web Services 2")
             .numHours(45)
@@ -54,7 +62,7 @@ class CourseServiceUnitTest {
 
     Course course3 = Course.builder()
             .id(3)
-            .courseId(UUID.randomUUID().toString())
+            .courseId(UUID.randomUUID())
             .courseNumber("3cat-423")
             .courseName("Web Services 3")
             .numHours(45)
@@ -89,11 +97,11 @@ class CourseServiceUnitTest {
     @Test
     public void whenGetCourseByCourseId_withNonExistentId_thenReturnEmpty() {
         //arrange
-        when(courseRepository.findCourseByCourseId(anyString()))
+        when(courseRepository.findCourseByCourseId(any(UUID.class)))
                 .thenReturn(Mono.empty());
 
         //act
-        Mono<CourseResponseModel> result = courseService.getCourseByCourseId("Non-Existent-Id");
+        Mono<CourseResponseModel> result = courseService.getCourseByCourseId(UUID.randomUUID().toString());
 
         //assert
         StepVerifier
@@ -103,6 +111,40 @@ class CourseServiceUnitTest {
     }
 
 
+    @Test
+    public void whenGetCourseByCourseId_withMalformedId_thenRepositoryIsNotQueried() {
+        //arrange
+        String malformedCourseId = "Non-Existent-Id";
+
+        //act
+        Mono<CourseResponseModel> result = courseService.getCourseByCourseId(malformedCourseId);
+
+        //assert
+        StepVerifier
+                .create(result)
+                .expectNextCount(0)
+                .verifyComplete();
+        verifyNoInteractions(courseRepository);
+    }
+
+    //36 chars like a UUID so it gets past the controller's length check, the service still can't parse it
+    @Test
+    public void whenGetCourseByCourseId_withMalformedIdOfUuidLength_thenCourseNotFound() {
+        //arrange
+        String malformedCourseId = "zzzzzzzz-zzzz-zzzz-zzzz-zzzzzzzzzzzz";
+        CourseController courseController = new CourseController(courseService);
+
+        //act
+        Mono<ResponseEntity<CourseResponseModel>> result = courseController.getCourseByCourseId(malformedCourseId, new HttpHeaders());
+
+        //assert
+        StepVerifier
+                .create(result)
+                .expectError(CourseNotFoundException.class)
+                .verify();
+        verifyNoInteractions(courseRepository);
+    }
+
     @Test
     void whenDeleteCourse_withValidId_thenReturnDeletedCourse() {
         //arrange
@@ -110,12 +152,12 @@ class CourseServiceUnitTest {
         when(courseRepository.delete(course1)).thenReturn(Mono.empty());
 
         //act
-        Mono<CourseResponseModel> result = courseService.deleteCourseByCourseId(course1.getCourseId());
+        Mono<CourseResponseModel> result = courseService.deleteCourseByCourseId(course1.getCourseId().toString());
 
         //assert
         StepVerifier.create(result)
                 .consumeNextWith(response -> {
-                    assertEquals(course1.getCourseId(), response.courseId());
+                    assertEquals(course1.getCourseId().toString(), response.courseId());
                     assertEquals(course1.getCourseName(), response.courseName());
                 })
                 .verifyComplete();
@@ -125,11 +167,11 @@ class CourseServiceUnitTest {
     @Test
     public void whenGetCourseByCourseId_withValidId_thenReturnOneCourse() {
         //arrange
-        when(courseRepository.findCourseByCourseId(anyString()))
+        when(courseRepository.findCourseByCourseId(any(UUID.class)))
                 .thenReturn(Mono.just(course1));
 
         //act
-        Mono<CourseResponseModel> result = courseService.getCourseByCourseId(course1.getCourseId());
+        Mono<CourseResponseModel> result = courseService.getCourseByCourseId(course1.getCourseId().toString());
 
         //assert
         StepVerifier
@@ -161,6 +203,8 @@ class CourseServiceUnitTest {
                     assertNotNull(response.courseId());
                 })
                 .verifyComplete();
+
+        verify(courseChangePublisher).courseAdded(any(CourseResponseModel.class));
     }
 
     @Test
@@ -175,14 +219,14 @@ class CourseServiceUnitTest {
         when(courseRepository.save(any(Course.class))).thenReturn(Mono.just(updatedCourse));
 
         //act
-        Mono<CourseResponseModel> result = courseService.updateCourse(Mono.just(requestModel), course1.getCourseId());
+        Mono<CourseResponseModel> result = courseService.updateCourse(Mono.just(requestModel), course1.getCourseId().toString());
 
         //assert
         StepVerifier.create(result)
                 .consumeNextWith(response -> {
                     assertEquals(requestModel.courseName(), response.courseName());
                     assertEquals(requestModel.numHours(), response.numHours());
-                    assertEquals(course1.getCourseId(), response.courseId());
+                    assertEquals(course1.getCourseId().toString(), response.courseId());
                 })
                 .verifyComplete();
     }
@@ -0,0 +1,90 @@
+package com.champlain.courseservice.dataaccesslayer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataR2dbcTest
+@ActiveProfiles({"test", "binary-ids"})
+@Import(IdStorageConfig.class)
+//own database, the binary-ids schema would otherwise replace the courses table the other tests use
+@TestPropertySource(properties = "spring.r2dbc.url=r2dbc:h2:mem:///courses-binary-ids;DB_CLOSE_DELAY=-1;")
+class CourseRepositoryBinaryIdsIntegrationTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    public void setupDB() {
+        StepVerifier
+                .create(courseRepository.deleteAll())
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenBinaryIds_thenCourseIdColumnIsAUuid() {
+        StepVerifier
+                .create(databaseClient.sql("SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'COURSES' AND COLUMN_NAME = 'COURSE_ID'")
+                        .map(row -> row.get("DATA_TYPE", String.class))
+                        .one())
+                .expectNext("UUID")
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenFindCourseByCourseId_withExistingCourseId_thenReturnCourse() {
+        //arrange
+        UUID courseId = UUID.randomUUID();
+        Course course = Course.builder()
+                .courseId(courseId)
+                .courseNumber("cat-420")
+                .courseName("Web Services")
+                .numHours(45)
+                .numCredits(3.0)
+                .department("Computer Science")
+                .build();
+
+        StepVerifier
+                .create(courseRepository.save(course))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        //act and assert
+        StepVerifier
+                .create(courseRepository.findCourseByCourseId(courseId))
+                .consumeNextWith(foundCourse -> assertEquals(courseId, foundCourse.getCourseId()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenSaveCourseWithDuplicateCourseId_thenThrowDuplicateKeyException() {
+        //arrange
+        UUID courseId = UUID.randomUUID();
+        Course course1 = Course.builder().courseId(courseId).courseNumber("cat-422").build();
+        Course course2 = Course.builder().courseId(courseId).courseNumber("cat-423").build();
+
+        StepVerifier
+                .create(courseRepository.save(course1))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        //act and assert
+        StepVerifier
+                .create(courseRepository.save(course2))
+                .verifyError(DuplicateKeyException.class);
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.test.StepVerifier;
@@ -14,6 +15,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @DataR2dbcTest
 @ActiveProfiles("test")
+@Import(IdStorageConfig.class)
 class CourseRepositoryIntegrationTest {
 
     @Autowired
@@ -31,7 +33,7 @@ class CourseRepositoryIntegrationTest {
     @Test
     public void whenFindCourseByCourseId_withExistingCourseId_thenReturnCourse(){
         ///  arrange
-        String courseId = UUID.randomUUID().toString();
+        UUID courseId = UUID.randomUUID();
         Course course = Course.builder()
                 .courseId(courseId)
                 .courseNumber("cat-420")
@@ -61,7 +63,7 @@ class CourseRepositoryIntegrationTest {
 
     @Test
     public void whenFindCourseByCourseId_withNonExistingCourseId_thenReturnEmptyMono(){
-        String nonExistingCourseId = UUID.randomUUID().toString();
+        UUID nonExistingCourseId = UUID.randomUUID();
 
         StepVerifier
                 .create(courseRepository.findCourseByCourseId(nonExistingCourseId))
@@ -72,7 +74,7 @@ class CourseRepositoryIntegrationTest {
 
     @Test
     public void whenSaveCourseWithDuplicateCourseId_thenThrowDuplicateKeyException(){
-        String courseId = UUID.randomUUID().toString();
+        UUID courseId = UUID.randomUUID();
         Course course1 = Course.builder()
                 .courseId(courseId)
                 .courseNumber("cat-422")
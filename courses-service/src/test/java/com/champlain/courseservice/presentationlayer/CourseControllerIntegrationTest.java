@@ -8,18 +8,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.support.DirtiesContextTestExecutionListener;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
@@ -57,7 +63,7 @@ class CourseControllerIntegrationTest {
         StepVerifier.create(courseRepository.findAll().take(1))
                 .consumeNextWith(course -> {
                     existingCourse = course;
-                    existingCourseId = course.getCourseId();
+                    existingCourseId = course.getCourseId().toString();
                 })
                 .verifyComplete();
     }
@@ -83,7 +89,7 @@ class CourseControllerIntegrationTest {
                 .take(1))
                 .doOnNext(course -> {
                     existingCourse = course;
-                    existingCourseId = course.getCourseId();
+                    existingCourseId = course.getCourseId().toString();
                 })
                 .as(StepVerifier::create)
                 .expectNextCount(1)
@@ -97,12 +103,176 @@ class CourseControllerIntegrationTest {
                 .expectStatus().isOk()
                 .expectHeader().contentType(MediaType.APPLICATION_JSON)
                 .expectBody()
-                .jsonPath("$.courseId").isEqualTo(existingCourse.getCourseId())
+                .jsonPath("$.courseId").isEqualTo(existingCourse.getCourseId().toString())
                 .jsonPath("$.courseName").isEqualTo(existingCourse.getCourseName())
                 .jsonPath("$.courseNumber").isEqualTo(existingCourse.getCourseNumber());
 
     }
 
+    @Test
+    public void whenGetCourseByCourseId_withMatchingIfNoneMatch_thenReturnNotModifiedWithoutBody() {
+        //arrange
+        String eTag = webTestClient.get()
+                .uri("/api/v1/courses/{courseId}", existingCourseId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(CourseResponseModel.class)
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(eTag);
+
+        //act and assert
+        webTestClient.get()
+                .uri("/api/v1/courses/{courseId}", existingCourseId)
+                .accept(MediaType.APPLICATION_JSON)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    public void whenGetCourseByCourseId_asJsonAndAsSmile_thenETagsDifferAndResponseVariesByAccept() {
+        //arrange
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        //act
+        String jsonETag = webTestClient.get()
+                .uri("/api/v1/courses/{courseId}", existingCourseId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().returnResult()
+                .getResponseHeaders()
+                .getETag();
+        String smileETag = webTestClient.get()
+                .uri("/api/v1/courses/{courseId}", existingCourseId)
+                .accept(smile)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(smile)
+                .expectHeader().value(HttpHeaders.VARY, vary -> assertTrue(vary.contains(HttpHeaders.ACCEPT)))
+                .expectBody().returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        //assert
+        assertNotNull(jsonETag);
+        assertNotNull(smileETag);
+        assertNotEquals(jsonETag, smileETag);
+        webTestClient.get()
+                .uri("/api/v1/courses/{courseId}", existingCourseId)
+                .accept(smile)
+                .ifNoneMatch(jsonETag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void whenGetCourseByCourseId_withAndWithoutGzipAccepted_thenETagsAreStrongAndDiffer() {
+        //act
+        String identityETag = webTestClient.get()
+                .uri("/api/v1/courses/{courseId}", existingCourseId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult()
+                .getResponseHeaders()
+                .getETag();
+        String gzipETag = webTestClient.get()
+                .uri("/api/v1/courses/{courseId}", existingCourseId)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.VARY, vary -> assertTrue(vary.contains(HttpHeaders.ACCEPT_ENCODING)))
+                .expectBody().returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        //assert
+        assertNotNull(identityETag);
+        assertNotNull(gzipETag);
+        assertFalse(identityETag.startsWith("W/"));
+        assertFalse(gzipETag.startsWith("W/"));
+        assertNotEquals(identityETag, gzipETag);
+    }
+
+    @Test
+    public void whenGetAllCourses_withGzipAccepted_thenEventStreamIsCompressed() {
+        webTestClient.get()
+                .uri("/api/v1/courses")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+
+    @Test
+    public void whenGetCourseChanges_withGzipAccepted_thenFirstHeartbeatIsFlushedThroughGzip() {
+        //act
+        Flux<byte[]> body = webTestClient.get()
+                .uri("/api/v1/courses/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .returnResult(byte[].class)
+                .getResponseBody();
+
+        //assert
+        //the feed never ends, so the heartbeat is only there if it was flushed
+        StepVerifier.create(body
+                        .scan(new ByteArrayOutputStream(), (received, chunk) -> {
+                            received.writeBytes(chunk);
+                            return received;
+                        })
+                        .map(received -> gunzipped(received.toByteArray()))
+                        .filter(events -> events.contains("HEARTBEAT"))
+                        .next())
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    //what can be inflated so far of a gzip stream that hasn't ended, after its 10 byte header
+    private static String gunzipped(byte[] gzip) {
+        if (gzip.length <= 10) {
+            return "";
+        }
+        Inflater inflater = new Inflater(true);
+        inflater.setInput(gzip, 10, gzip.length - 10);
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try {
+            int count;
+            while ((count = inflater.inflate(buffer)) > 0) {
+                inflated.write(buffer, 0, count);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            inflater.end();
+        }
+        return inflated.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void whenGetCourseByCourseId_withSmileAccepted_thenReturnSmileCourseResponseModel() {
+        webTestClient.get()
+                .uri("/api/v1/courses/{courseId}", existingCourseId)
+                .accept(MediaType.parseMediaType("application/x-jackson-smile"), MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/x-jackson-smile")
+                .expectBody(CourseResponseModel.class)
+                .value(course -> assertEquals(existingCourseId, course.courseId()));
+    }
+
     @Test
     public void whenGetCourseByCourseId_withInvalidCourseId_thenReturnUnprocessableEntity() {
         webTestClient.get()
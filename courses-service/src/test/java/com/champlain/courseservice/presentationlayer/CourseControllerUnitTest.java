@@ -9,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.TestPropertySource;
 import reactor.core.publisher.Mono;
@@ -40,7 +41,7 @@ class CourseControllerUnitTest {
 
         //act
         Mono<ResponseEntity<CourseResponseModel>> result = courseController
-                .getCourseByCourseId(NON_EXISTING_COURSE_ID);
+                .getCourseByCourseId(NON_EXISTING_COURSE_ID, new HttpHeaders());
 
         //assert
         StepVerifier.create(result)
@@ -0,0 +1,73 @@
+package com.champlain.courseservice.presentationlayer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDeadlineFilterTest {
+
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter();
+
+    private static MockServerWebExchange exchange(String timeout) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/courses");
+        if (timeout != null) {
+            request.header(RequestDeadlineFilter.HEADER, timeout);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    @Test
+    public void whenNoTimeLeft_thenRequestIsNotHandled(){
+        //arrange
+        MockServerWebExchange exchange = exchange("0");
+        AtomicBoolean handled = new AtomicBoolean();
+
+        //act
+        Mono<Void> result = filter.filter(exchange, e -> Mono.fromRunnable(() -> handled.set(true)));
+
+        //assert
+        StepVerifier.create(result).verifyComplete();
+        assertFalse(handled.get());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void whenRequestRunsPastItsDeadline_thenItIsCancelled(){
+        //arrange
+        MockServerWebExchange exchange = exchange("50");
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        //act
+        Mono<Void> result = filter.filter(exchange, e -> Mono.<Void>never().doOnCancel(() -> cancelled.set(true)));
+
+        //assert
+        StepVerifier.create(result).verifyComplete();
+        assertTrue(cancelled.get());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void whenNoHeader_thenRequestRunsAsBefore(){
+        //arrange
+        MockServerWebExchange exchange = exchange(null);
+        AtomicBoolean handled = new AtomicBoolean();
+
+        //act
+        Mono<Void> result = filter.filter(exchange, e -> Mono.fromRunnable(() -> handled.set(true)));
+
+        //assert
+        StepVerifier.create(result).verifyComplete();
+        assertTrue(handled.get());
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+}
@@ -0,0 +1,60 @@
+package com.champlain.enrollmentsservice.benchmarks;
+
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/*
+   One operation = raising an expected error at the bottom of a call stack stackDepth frames deep and handling it
+   the way GlobalControllerExceptionHandler does (only the message is read).
+   legacy is the exception as it was before (RuntimeException filling in its stack trace),
+   stackless is the current StudentNotFoundException and preallocated a shared constant error of ApplicationExceptions.
+ */
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+    //frames between the request entry point and the place the error is raised
+    @Param({"10", "100"})
+    public int stackDepth;
+
+    private static final String STUDENT_ID = "c3540a89-cb47-4c96-888e-ff96708db4d8";
+
+    //StudentNotFoundException before it was made stackless
+    static class LegacyStudentNotFoundException extends RuntimeException {
+
+        private static final String MESSAGE = "Student with id=%s is not found";
+
+        LegacyStudentNotFoundException(String studentId) { super(MESSAGE.formatted(studentId)); }
+    }
+
+    @Benchmark
+    public String legacy() {
+        return handle(() -> Mono.error(new LegacyStudentNotFoundException(STUDENT_ID)));
+    }
+
+    @Benchmark
+    public String stackless() {
+        return handle(() -> Mono.error(new StudentNotFoundException(STUDENT_ID)));
+    }
+
+    @Benchmark
+    public String preallocated() {
+        return handle(ApplicationExceptions::missingStudentId);
+    }
+
+    private String handle(Supplier<Mono<String>> error) {
+        return raiseAt(stackDepth, error)
+                .onErrorResume(ex -> Mono.just(ex.getMessage()))
+                .block();
+    }
+
+    private static Mono<String> raiseAt(int depth, Supplier<Mono<String>> error) {
+        return depth == 0 ? error.get() : raiseAt(depth - 1, error);
+    }
+}
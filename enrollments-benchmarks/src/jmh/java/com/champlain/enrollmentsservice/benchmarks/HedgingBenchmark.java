@@ -0,0 +1,98 @@
+package com.champlain.enrollmentsservice.benchmarks;
+
+import com.champlain.enrollmentsservice.domainclientlayer.ClientMetrics;
+import com.champlain.enrollmentsservice.domainclientlayer.ClientResilience;
+import com.champlain.enrollmentsservice.domainclientlayer.RequestHedging;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+   Lookups by studentId, always cache misses, against a stub students-service with a heavy-tailed latency:
+   Pareto with a 2ms minimum and shape 1.5 (p50 3ms, p95 15ms, p99 43ms, p99.9 200ms), capped at 1s.
+
+   single   one lookup, compare the p99 and p99.9 of the SampleTime results with and without hedging
+   fanOut   LOOKUPS lookups, IN_FLIGHT at a time, which takes as long as the slowest of them
+
+   The number of lookups sent to the stub per lookup asked for (the load hedging adds) is printed at the end of
+   each trial.
+ */
+@State(Scope.Benchmark)
+public class HedgingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean hedging;
+
+    private static final long MIN_LATENCY_MICROS = 2_000;
+    private static final double PARETO_SHAPE = 1.5;
+    private static final long MAX_LATENCY_MICROS = 1_000_000;
+
+    private static final int LOOKUPS = 20;
+    private static final int IN_FLIGHT = 10;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+
+    private StubStudentLookupService students;
+    private StudentServiceClientAsynchronous client;
+
+    @Setup
+    public void setup() {
+        students = new StubStudentLookupService(() -> {
+            sent.increment();
+            return paretoLatency();
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RequestHedging requestHedging = hedging
+                ? new RequestHedging("students-service",
+                        new RequestHedging.Settings(0.95, Duration.ofMillis(5), 0.05, 1000), registry)
+                : null;
+        //a cache of 1, every lookup is for a new studentId anyway
+        client = new StudentServiceClientAsynchronous(WebClient.create(students.baseUrl()),
+                1, Duration.ofMinutes(10), Duration.ofMinutes(1), 0, Duration.ZERO,
+                new ClientMetrics(registry, "students-service"), ClientResilience.disabled(), requestHedging, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%nhedging=%s: %.3f lookups sent per lookup%n", hedging,
+                sent.sum() / (double) Math.max(1, lookups.sum()));
+        students.close();
+    }
+
+    @Benchmark
+    public StudentResponseModel single() {
+        lookups.increment();
+        return client.getStudentByStudentId(UUID.randomUUID().toString()).block();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> fanOut() {
+        lookups.add(LOOKUPS);
+        return Flux.range(0, LOOKUPS)
+                .flatMap(i -> client.getStudentByStudentId(UUID.randomUUID().toString()), IN_FLIGHT)
+                .collectList()
+                .block();
+    }
+
+    private static Duration paretoLatency() {
+        double u = 1 - ThreadLocalRandom.current().nextDouble();
+        long micros = (long) (MIN_LATENCY_MICROS / Math.pow(u, 1 / PARETO_SHAPE));
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Math.min(micros, MAX_LATENCY_MICROS)));
+    }
+}
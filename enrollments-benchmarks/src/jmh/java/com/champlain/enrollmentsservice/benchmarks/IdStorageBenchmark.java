@@ -0,0 +1,122 @@
+package com.champlain.enrollmentsservice.benchmarks;
+
+import com.champlain.enrollmentsservice.mapper.UuidV7Generator;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.mongodb.client.model.Filters.eq;
+
+/*
+   Enrollments with string vs binary (BSON Binary subtype 4) ids in an embedded mongod, with the indexes
+   enrollments-service creates on them. One operation = finding one enrollment by enrollmentId.
+   The size of each index (collStats) is printed once the collection is filled.
+ */
+@State(Scope.Benchmark)
+public class IdStorageBenchmark {
+
+    @Param({"string", "binary"})
+    public String idStorage;
+
+    //enrollments in the collection
+    @Param({"100000", "1000000"})
+    public int documents;
+
+    private static final int STUDENTS = 10_000;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int LOOKUP_KEYS = 10_000;
+
+    private TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private MongoClient client;
+    private MongoCollection<Document> enrollments;
+    private final List<Object> lookupKeys = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        client = MongoClients.create("mongodb://" + mongod.current().getServerAddress());
+        enrollments = client.getDatabase("enrollments").getCollection("enrollment");
+        enrollments.createIndex(Indexes.ascending("enrollmentId"), new IndexOptions().name("enrollmentId_unique").unique(true));
+        enrollments.createIndex(Indexes.ascending("studentId", "enrollmentYear", "semester", "_id"), new IndexOptions().name("student_term"));
+        enrollments.createIndex(Indexes.ascending("courseId", "enrollmentYear", "semester", "_id"), new IndexOptions().name("course_term"));
+        enrollments.createIndex(Indexes.ascending("studentId", "_id"), new IndexOptions().name("student"));
+        enrollments.createIndex(Indexes.ascending("courseId", "_id"), new IndexOptions().name("course"));
+
+        List<String> studentIds = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            studentIds.add(UuidV7Generator.nextString());
+        }
+        List<Document> batch = new ArrayList<>();
+        for (int i = 0; i < documents; i++) {
+            String enrollmentId = UuidV7Generator.nextString();
+            batch.add(new Document("enrollmentId", id(enrollmentId))
+                    .append("enrollmentYear", 2000 + i % 25)
+                    .append("semester", i % 2 == 0 ? "FALL" : "WINTER")
+                    .append("studentId", id(studentIds.get(i % STUDENTS)))
+                    .append("studentFirstName", "Donna")
+                    .append("studentLastName", "Hornsby")
+                    .append("courseId", id(UuidV7Generator.nextString()))
+                    .append("courseNumber", "N45-LA")
+                    .append("courseName", "Web Services"));
+            if (i % (documents / LOOKUP_KEYS) == 0) {
+                lookupKeys.add(id(enrollmentId));
+            }
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                enrollments.insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            enrollments.insertMany(batch);
+        }
+
+        Document stats = client.getDatabase("enrollments").runCommand(new Document("collStats", "enrollment"));
+        System.out.printf("%n%s ids, %d enrollments: index sizes (bytes) %s, total %s%n",
+                idStorage, documents, stats.get("indexSizes", Document.class).toJson(), stats.get("totalIndexSize"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        mongod.close();
+    }
+
+    @Benchmark
+    public Document findByEnrollmentId() {
+        Object key = lookupKeys.get(ThreadLocalRandom.current().nextInt(lookupKeys.size()));
+        return enrollments.find(eq("enrollmentId", key)).first();
+    }
+
+    //what IdStorageConfig writes for each storage
+    private Object id(String id) {
+        if ("string".equals(idStorage)) {
+            return id;
+        }
+        UUID uuid = UUID.fromString(id);
+        return new Binary(BsonBinarySubType.UUID_STANDARD, ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array());
+    }
+}
@@ -0,0 +1,85 @@
+package com.champlain.enrollmentsservice.benchmarks;
+
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+   In-process stand-in for the lookups enrollments-service makes to students-service, GET /api/v1/students/{studentId}
+   and POST /api/v1/students/batch, with the transport of the real services: HTTP/1.1 and h2c on the same port,
+   gzip for responses of 2KB and more when the client accepts it, JSON or Smile depending on the Accept header.
+   Responses are serialised on every call, like the real services do.
+   GET /{studentId} answers after the latency drawn for it (without holding a thread), none by default.
+ */
+final class StubStudentLookupService implements AutoCloseable {
+
+    static final String SMILE = "application/x-jackson-smile";
+    private static final String JSON = "application/json";
+    private static final int COMPRESSION_MIN_RESPONSE_SIZE = 2048;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new SmileMapper();
+    private final DisposableServer server;
+
+    StubStudentLookupService() {
+        this(() -> Duration.ZERO);
+    }
+
+    StubStudentLookupService(Supplier<Duration> latency) {
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .compress(COMPRESSION_MIN_RESPONSE_SIZE)
+                .route(routes -> routes
+                        .get("/api/v1/students/{studentId}", (request, response) -> {
+                            Publisher<Void> answer = send(request, response, student(request.param("studentId")));
+                            Duration delay = latency.get();
+                            return delay.isZero() ? answer : Mono.delay(delay).then(Mono.from(answer));
+                        })
+                        .post("/api/v1/students/batch", (request, response) -> request.receive()
+                                .aggregate()
+                                .asByteArray()
+                                .flatMap(body -> Mono.fromCallable(() -> jsonMapper.readValue(body, new TypeReference<List<String>>() {})))
+                                .flatMap(studentIds -> Mono.from(send(request, response,
+                                        studentIds.stream().map(StubStudentLookupService::student).toList())))))
+                .bindNow();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port() + "/api/v1/students";
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> send(HttpServerRequest request, HttpServerResponse response, Object body) {
+        boolean smile = request.requestHeaders().get(HttpHeaderNames.ACCEPT, "").contains(SMILE);
+        ObjectMapper mapper = smile ? smileMapper : jsonMapper;
+        return Mono.fromCallable(() -> mapper.writeValueAsBytes(body))
+                .flatMap(bytes -> Mono.from(response
+                        .header(HttpHeaderNames.CONTENT_TYPE, smile ? SMILE : JSON)
+                        //the compression threshold is checked against the Content-Length
+                        .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(bytes.length))
+                        .sendByteArray(Mono.just(bytes))));
+    }
+
+    private static StudentResponseModel student(String studentId) {
+        return new StudentResponseModel(studentId, "Donna", "Hornsby", "History", "stuff");
+    }
+}
@@ -0,0 +1,44 @@
+package com.champlain.enrollmentsservice.benchmarks;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/*
+   In-process stand-in for students-service, serving only GET /api/v1/students/row/{id}.
+   Every response is delayed by latency (without holding a thread) and carries payloadBytes of padding in "stuff",
+   so the benchmarks measure the fan-out strategies rather than MySQL.
+ */
+final class StubStudentsService implements AutoCloseable {
+
+    private final DisposableServer server;
+
+    StubStudentsService(Duration latency, int payloadBytes) {
+        String stuff = "x".repeat(payloadBytes);
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/api/v1/students/row/{id}", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.delay(latency)
+                                .thenReturn(studentJson(Integer.parseInt(request.param("id")), stuff)))))
+                .bindNow();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port() + "/api/v1/students";
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private static String studentJson(int rowId, String stuff) {
+        return """
+                {"studentId":"%08d-0000-4000-8000-000000000000","firstName":"Donna","lastName":"Hornsby","program":"History","stuff":"%s"}
+                """.formatted(rowId, stuff);
+    }
+}
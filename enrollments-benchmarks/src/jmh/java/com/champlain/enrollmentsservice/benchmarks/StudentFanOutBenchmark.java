@@ -0,0 +1,89 @@
+package com.champlain.enrollmentsservice.benchmarks;
+
+import com.champlain.enrollmentsservice.domainclientlayer.BlockingCalls;
+import com.champlain.enrollmentsservice.domainclientlayer.ClientMetrics;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientSynchronous;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/*
+   One operation = fetching the 1000 students by databaseRowId with one of the strategies of the student clients.
+   Mode, iterations, time unit and the gc profiler are set in build.gradle.
+ */
+@State(Scope.Benchmark)
+public class StudentFanOutBenchmark {
+
+    //latency injected by the stub on every call
+    @Param({"0", "5"})
+    public int latencyMs;
+
+    //padding added to every student
+    @Param({"100", "10000"})
+    public int payloadBytes;
+
+    private StubStudentsService students;
+    private BlockingCalls blockingCalls;
+    private StudentServiceClientSynchronous synchronousClient;
+    private StudentServiceClientAsynchronous asynchronousClient;
+
+    @Setup
+    public void setup() {
+        students = new StubStudentsService(Duration.ofMillis(latencyMs), payloadBytes);
+        blockingCalls = BlockingCalls.unmeasured("students-service");
+        synchronousClient = new StudentServiceClientSynchronous(students.baseUrl(), new RestTemplate(), new ObjectMapper(), blockingCalls);
+        asynchronousClient = new StudentServiceClientAsynchronous(WebClient.builder()
+                .baseUrl(students.baseUrl())
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(1024 * 1024))
+                .build(), new ClientMetrics(new SimpleMeterRegistry(), "students-service"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        synchronousClient.close();
+        blockingCalls.close();
+        students.close();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> syncLoop() {
+        return synchronousClient.get1000StudentsLoop();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> syncParallel() {
+        return synchronousClient.get1000StudentsSyncParallel();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> syncVirtual() {
+        return synchronousClient.get1000StudentsSyncVirtual().join();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> async() {
+        return asynchronousClient.get1000StudentsAsync().collectList().block();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> asyncParallel() {
+        return asynchronousClient.get1000StudentsAsyncParallel().collectList().block();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> asyncBounded() {
+        return asynchronousClient.get1000StudentsAsyncBounded().collectList().block();
+    }
+}
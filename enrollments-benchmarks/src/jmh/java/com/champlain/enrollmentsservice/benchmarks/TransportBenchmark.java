@@ -0,0 +1,145 @@
+package com.champlain.enrollmentsservice.benchmarks;
+
+import com.champlain.enrollmentsservice.domainclientlayer.ServiceClientTransport;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/*
+   Student lookups through the WebClient enrollments-service builds from ServiceClientTransport, against a stub
+   serving every combination of HTTP/1.1 or h2c, gzip or not, JSON or Smile:
+
+   single             one GET /{studentId}
+   concurrentSingles  STUDENTS GET /{studentId}, IN_FLIGHT at a time, HTTP/1.1 needs a connection for each
+   bulk               one POST /batch for the same STUDENTS studentIds
+
+   The bytes read and written on the client's connections (after compression, HTTP framing included) and the
+   number of connections opened are printed per operation at the end of each trial.
+ */
+@State(Scope.Benchmark)
+public class TransportBenchmark {
+
+    @Param({"http1", "h2c"})
+    public String protocol;
+
+    @Param({"false", "true"})
+    public boolean compression;
+
+    @Param({"json", "smile"})
+    public String codec;
+
+    private static final int STUDENTS = 100;
+    //within the 16 connections reactor-netty's default pool allows at least, so no call waits for a connection
+    private static final int IN_FLIGHT = 16;
+
+    private final WireBytes wireBytes = new WireBytes();
+    private final LongAdder operations = new LongAdder();
+    private final String studentId = UUID.randomUUID().toString();
+    private final List<String> studentIds = IntStream.range(0, STUDENTS)
+            .mapToObj(i -> UUID.randomUUID().toString())
+            .toList();
+
+    private StubStudentLookupService students;
+    private WebClient webClient;
+
+    @Setup
+    public void setup() {
+        students = new StubStudentLookupService();
+        ServiceClientTransport transport = new ServiceClientTransport(protocol.equals("h2c"), compression,
+                ServiceClientTransport.Codec.valueOf(codec.toUpperCase()));
+        webClient = transport.webClientBuilder(students.baseUrl(), wireBytes)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(1024 * 1024))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        long count = Math.max(1, operations.sum());
+        System.out.printf("%n%s %s compression=%s: %d bytes received, %d bytes sent per operation, %d connections%n",
+                protocol, codec, compression, wireBytes.received.sum() / count, wireBytes.sent.sum() / count,
+                wireBytes.connections.sum());
+        students.close();
+    }
+
+    @Benchmark
+    public StudentResponseModel single() {
+        operations.increment();
+        return lookup(studentId).block();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> concurrentSingles() {
+        operations.increment();
+        return Flux.fromIterable(studentIds)
+                .flatMap(this::lookup, IN_FLIGHT)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<StudentResponseModel> bulk() {
+        operations.increment();
+        return webClient.post()
+                .uri("/batch")
+                .bodyValue(studentIds)
+                .retrieve()
+                .bodyToFlux(StudentResponseModel.class)
+                .collectList()
+                .block();
+    }
+
+    private Mono<StudentResponseModel> lookup(String id) {
+        return webClient.get()
+                .uri("/{studentId}", id)
+                .retrieve()
+                .bodyToMono(StudentResponseModel.class);
+    }
+
+    //first handler of every client connection, so it sees the bytes as they are on the wire
+    @ChannelHandler.Sharable
+    private static final class WireBytes extends ChannelDuplexHandler {
+
+        private final LongAdder received = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder connections = new LongAdder();
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            connections.increment();
+            ctx.fireChannelActive();
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof ByteBuf buf) {
+                received.add(buf.readableBytes());
+            }
+            ctx.fireChannelRead(msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            if (msg instanceof ByteBuf buf) {
+                sent.add(buf.readableBytes());
+            }
+            ctx.write(msg, promise);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.champlain.enrollmentsservice.benchmarks;
+
+import com.champlain.enrollmentsservice.mapper.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.UUID;
+
+/*
+   One operation = one id in its 36 char string form, as EntityModelMapper stores it.
+   The *Contended variants run on every core at once: UUID.randomUUID() shares one SecureRandom,
+   UuidV7Generator one AtomicLong.
+ */
+public class UuidGenerationBenchmark {
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String uuidV7() {
+        return UuidV7Generator.nextString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String randomUuidContended() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String uuidV7Contended() {
+        return UuidV7Generator.nextString();
+    }
+}
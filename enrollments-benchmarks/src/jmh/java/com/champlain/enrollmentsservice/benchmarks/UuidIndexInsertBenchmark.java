@@ -0,0 +1,76 @@
+package com.champlain.enrollmentsservice.benchmarks;
+
+import com.champlain.enrollmentsservice.mapper.UuidV7Generator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/*
+   One operation = inserting a batch of rows keyed by a 36 char id into a table with a unique index on it,
+   like course_id, student_id or enrollmentId. The table is recreated and prefilled before every iteration,
+   so each one starts from the same index size.
+   Uses an in-memory H2 table (the students-service h2 profile): no disk, so the gap with a real database,
+   where randomly placed inserts also miss the page cache, is a lower bound.
+ */
+@State(Scope.Benchmark)
+public class UuidIndexInsertBenchmark {
+
+    @Param({"random", "v7"})
+    public String idType;
+
+    //rows already in the table when an iteration starts
+    @Param({"100000", "1000000"})
+    public int prefillRows;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Iteration)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:uuid-index");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE entities (row_id BIGINT AUTO_INCREMENT PRIMARY KEY, entity_id CHAR(36) NOT NULL)");
+            statement.execute("CREATE UNIQUE INDEX entities_entity_id ON entities (entity_id)");
+        }
+        insert = connection.prepareStatement("INSERT INTO entities (entity_id) VALUES (?)");
+        for (int i = 0; i < prefillRows; i += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException {
+        insert.close();
+        //last connection to the in-memory database closes, the database is dropped
+        connection.close();
+    }
+
+    @Benchmark
+    public int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setString(1, nextId());
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+
+    private String nextId() {
+        return "v7".equals(idType) ? UuidV7Generator.nextString() : UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,115 @@
+package com.champlain.enrollmentsservice.loadtest;
+
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+   Picks the next operation from the weighted mix and sends it.
+   GET, PUT and DELETE work on enrollments created by earlier POSTs; while there are none, a POST is sent instead.
+   Every student and course exists in the stubs, so each POST is a new enrollment (random ids never collide).
+ */
+final class EnrollmentWorkload {
+
+    private final WebClient webClient;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final List<String> enrollmentIds = new ArrayList<>();
+
+    EnrollmentWorkload(WebClient webClient, Map<Operation, Integer> mix) {
+        this.webClient = webClient;
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Operation nextOperation() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return Operation.POST;
+    }
+
+    //the operation actually sent (a POST when there's nothing to work on yet) and its response status
+    record Result(Operation operation, HttpStatusCode status) {
+    }
+
+    Mono<Result> send(Operation operation) {
+        Optional<String> enrollmentId = switch (operation) {
+            case POST -> Optional.empty();
+            case GET, PUT -> pickEnrollmentId(false);
+            case DELETE -> pickEnrollmentId(true);
+        };
+        if (operation != Operation.POST && enrollmentId.isEmpty()) {
+            operation = Operation.POST;
+        }
+
+        Operation sent = operation;
+        return switch (operation) {
+            case POST -> webClient.post()
+                    .uri("/api/v1/enrollments")
+                    .bodyValue(randomRequest())
+                    .exchangeToMono(response -> response.statusCode().is2xxSuccessful()
+                            ? response.bodyToMono(EnrollmentResponseModel.class)
+                                    .doOnNext(created -> addEnrollmentId(created.enrollmentId()))
+                                    .thenReturn(new Result(sent, response.statusCode()))
+                            : response.releaseBody().thenReturn(new Result(sent, response.statusCode())));
+            case GET -> webClient.get()
+                    .uri("/api/v1/enrollments/{enrollmentId}", enrollmentId.get())
+                    .exchangeToMono(response -> response.releaseBody().thenReturn(new Result(sent, response.statusCode())));
+            case PUT -> webClient.put()
+                    .uri("/api/v1/enrollments/{enrollmentId}", enrollmentId.get())
+                    .bodyValue(randomRequest())
+                    .exchangeToMono(response -> response.releaseBody().thenReturn(new Result(sent, response.statusCode())));
+            case DELETE -> webClient.delete()
+                    .uri("/api/v1/enrollments/{enrollmentId}", enrollmentId.get())
+                    .exchangeToMono(response -> response.releaseBody().thenReturn(new Result(sent, response.statusCode())));
+        };
+    }
+
+    private static EnrollmentRequestModel randomRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new EnrollmentRequestModel(
+                random.nextInt(2000, Year.now().getValue() + 1),
+                Semester.values()[random.nextInt(Semester.values().length)],
+                UUID.randomUUID().toString(),
+                UUID.randomUUID().toString());
+    }
+
+    private synchronized void addEnrollmentId(String enrollmentId) {
+        enrollmentIds.add(enrollmentId);
+    }
+
+    //a random created enrollment, removed from the pool when it is about to be deleted
+    private synchronized Optional<String> pickEnrollmentId(boolean remove) {
+        if (enrollmentIds.isEmpty()) {
+            return Optional.empty();
+        }
+        int index = ThreadLocalRandom.current().nextInt(enrollmentIds.size());
+        String enrollmentId = enrollmentIds.get(index);
+        if (remove) {
+            //swap with the last one so removing stays O(1)
+            enrollmentIds.set(index, enrollmentIds.get(enrollmentIds.size() - 1));
+            enrollmentIds.remove(enrollmentIds.size() - 1);
+        }
+        return Optional.of(enrollmentId);
+    }
+}
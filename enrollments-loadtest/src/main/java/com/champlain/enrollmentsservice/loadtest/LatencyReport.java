@@ -0,0 +1,82 @@
+package com.champlain.enrollmentsservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.HttpStatusCode;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+   Per operation HDR latency histogram (microseconds, 3 significant digits) and response counts.
+   Latencies are measured from the time a request was scheduled to start, not from when it was actually sent,
+   so a stalled service shows up in the percentiles instead of silently lowering the request rate.
+ */
+final class LatencyReport {
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> successes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> rejections = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+            successes.put(operation, new LongAdder());
+            rejections.put(operation, new LongAdder());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, HttpStatusCode status, long latencyNanos) {
+        latencies.get(operation).recordValue(Math.max(1, latencyNanos / 1_000));
+        if (status.is2xxSuccessful()) {
+            successes.get(operation).increment();
+        } else if (status.is4xxClientError()) {
+            rejections.get(operation).increment();
+        } else {
+            errors.get(operation).increment();
+        }
+    }
+
+    //no response at all (connection refused, timeout, ...)
+    void recordFailure(Operation operation, long latencyNanos) {
+        latencies.get(operation).recordValue(Math.max(1, latencyNanos / 1_000));
+        errors.get(operation).increment();
+    }
+
+    void print(PrintStream out, Duration measured) {
+        double seconds = measured.toNanos() / 1e9;
+        out.printf("%-8s %9s %9s %9s %9s %10s %9s %9s %9s %9s %9s%n",
+                "op", "count", "2xx", "4xx", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            out.printf("%-8s %9d %9d %9d %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation,
+                    histogram.getTotalCount(),
+                    successes.get(operation).sum(),
+                    rejections.get(operation).sum(),
+                    errors.get(operation).sum(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+    }
+
+    long errorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -0,0 +1,64 @@
+package com.champlain.enrollmentsservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+   Command line options, all given as --name=value:
+
+   --rate=200                     requests started per second, whatever the response times (open loop)
+   --duration=60s                 how long requests are started for, warm-up excluded
+   --warmup=10s                   requests started during the warm-up are sent but not reported
+   --mix=post:40,get:40,put:10,delete:10   relative weight of each operation
+   --student-latency=5ms          latency injected by the stub students-service
+   --course-latency=5ms           latency injected by the stub courses-service
+   --max-connections=1000         connections to enrollments-service, requests beyond it wait for one
+ */
+record LoadTestOptions(int rate,
+                       Duration duration,
+                       Duration warmup,
+                       Map<Operation, Integer> mix,
+                       Duration studentLatency,
+                       Duration courseLatency,
+                       int maxConnections) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                parseMix(values.getOrDefault("mix", "post:40,get:40,put:10,delete:10")),
+                DurationStyle.detectAndParse(values.getOrDefault("student-latency", "5ms")),
+                DurationStyle.detectAndParse(values.getOrDefault("course-latency", "5ms")),
+                Integer.parseInt(values.getOrDefault("max-connections", "1000")));
+
+        if (options.rate() < 1) {
+            throw new IllegalArgumentException("rate must be at least 1, was " + options.rate());
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        if (weights.getOrDefault(Operation.POST, 0) < 1) {
+            throw new IllegalArgumentException("mix needs some post, get, put and delete only work on created enrollments");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,106 @@
+package com.champlain.enrollmentsservice.loadtest;
+
+import com.champlain.enrollmentsservice.EnrollmentsServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+   Open-loop load test of api/v1/enrollments on a single box: starts the stub students and courses services,
+   enrollments-service itself on embedded mongo, then starts requests at a fixed rate whatever the response times,
+   and prints throughput and latency percentiles per operation. Exits with 1 when any request failed (5xx or no response).
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean failed;
+
+        try (StubDownstreamServices stubs = new StubDownstreamServices(options.studentLatency(), options.courseLatency());
+             ConfigurableApplicationContext service = startEnrollmentsService(stubs.port())) {
+
+            int port = ((WebServerApplicationContext) service).getWebServer().getPort();
+            LatencyReport report = run(options, "http://localhost:" + port);
+
+            System.out.printf("%n%d req/s for %s (after %s warm-up), student latency %s, course latency %s%n%n",
+                    options.rate(), options.duration(), options.warmup(), options.studentLatency(), options.courseLatency());
+            report.print(System.out, options.duration());
+            failed = report.errorCount() > 0;
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static ConfigurableApplicationContext startEnrollmentsService(int stubPort) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.data.mongodb.port", 0);
+        properties.put("spring.data.mongodb.database", "enrollments");
+        properties.put("de.flapdoodle.mongodb.embedded.version", "6.0.5");
+        properties.put("app.students-service.host", "localhost");
+        properties.put("app.students-service.port", stubPort);
+        properties.put("app.courses-service.host", "localhost");
+        properties.put("app.courses-service.port", stubPort);
+        //debug logging on the request path would be part of what gets measured
+        properties.put("logging.level.com.champlain", "INFO");
+
+        return new SpringApplicationBuilder(EnrollmentsServiceApplication.class)
+                .properties(properties)
+                .run();
+    }
+
+    private static LatencyReport run(LoadTestOptions options, String baseUrl) {
+        ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(options.maxConnections())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+
+        EnrollmentWorkload workload = new EnrollmentWorkload(webClient, options.mix());
+        LatencyReport report = new LatencyReport();
+
+        long periodNanos = 1_000_000_000L / options.rate();
+        long warmupRequests = options.warmup().toNanos() / periodNanos;
+        long requests = warmupRequests + options.duration().toNanos() / periodNanos;
+        long start = System.nanoTime();
+
+        try {
+            Flux.interval(Duration.ofNanos(periodNanos))
+                    .take(requests)
+                    .flatMap(i -> {
+                        //the first interval tick is one period after start
+                        long scheduled = start + (i + 1) * periodNanos;
+                        boolean measured = i >= warmupRequests;
+                        Operation operation = workload.nextOperation();
+                        return workload.send(operation)
+                                .doOnNext(result -> {
+                                    if (measured) {
+                                        report.record(result.operation(), result.status(), System.nanoTime() - scheduled);
+                                    }
+                                })
+                                .onErrorResume(ex -> {
+                                    if (measured) {
+                                        report.recordFailure(operation, System.nanoTime() - scheduled);
+                                    }
+                                    return Mono.empty();
+                                });
+                    }, Integer.MAX_VALUE)
+                    .blockLast();
+        } finally {
+            connections.dispose();
+        }
+        return report;
+    }
+}
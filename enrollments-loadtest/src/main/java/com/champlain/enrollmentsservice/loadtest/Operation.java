@@ -0,0 +1,9 @@
+package com.champlain.enrollmentsservice.loadtest;
+
+//the api/v1/enrollments operations the load test drives
+enum Operation {
+    POST,
+    GET,
+    PUT,
+    DELETE
+}
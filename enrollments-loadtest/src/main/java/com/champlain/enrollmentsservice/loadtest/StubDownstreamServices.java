@@ -0,0 +1,53 @@
+package com.champlain.enrollmentsservice.loadtest;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/*
+   In-process stand-in for both students-service and courses-service: any studentId or courseId exists.
+   Responses are delayed by the injected latency without holding a thread, like a remote call would be.
+ */
+final class StubDownstreamServices implements AutoCloseable {
+
+    private final DisposableServer server;
+
+    StubDownstreamServices(Duration studentLatency, Duration courseLatency) {
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/v1/students/{studentId}", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.delay(studentLatency)
+                                        .thenReturn(studentJson(request.param("studentId")))))
+                        .get("/api/v1/courses/{courseId}", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.delay(courseLatency)
+                                        .thenReturn(courseJson(request.param("courseId"))))))
+                .bindNow();
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private static String studentJson(String studentId) {
+        return """
+                {"studentId":"%s","firstName":"Donna","lastName":"Hornsby","program":"History","stuff":"stuff"}
+                """.formatted(studentId);
+    }
+
+    private static String courseJson(String courseId) {
+        return """
+                {"courseId":"%s","courseNumber":"N45-LA","courseName":"Web Services","numHours":60,"numCredits":2.0,"department":"Computer Science"}
+                """.formatted(courseId);
+    }
+}
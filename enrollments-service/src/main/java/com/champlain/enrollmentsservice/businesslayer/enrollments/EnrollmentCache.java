@@ -0,0 +1,44 @@
+package com.champlain.enrollmentsservice.businesslayer.enrollments;
+
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/*
+   Read-through cache of enrollments by enrollmentId, for the portal polling the same few enrollments.
+   Concurrent misses for one enrollmentId share a single load, and unknown enrollmentIds are never cached.
+
+   Writes go through EnrollmentServiceImpl, which invalidates the entry once Mongo has acknowledged the update or
+   delete: a load still in flight at that point is dropped by the cache instead of being stored, and any later
+   load reads the new state. Only this instance is invalidated, so with several replicas another one can serve
+   an outdated enrollment for up to expire-after-write.
+ */
+public class EnrollmentCache {
+
+    private final AsyncCache<String, EnrollmentResponseModel> cache;
+
+    public EnrollmentCache(long maximumSize, Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Mono<EnrollmentResponseModel> get(String enrollmentId, Function<String, Mono<EnrollmentResponseModel>> loader) {
+        // suppressCancel: one caller giving up must not cancel the load other callers are waiting on
+        return Mono.fromFuture(() -> cache.get(enrollmentId, (id, executor) -> loader.apply(id).toFuture()), true);
+    }
+
+    public void invalidate(String enrollmentId) {
+        cache.synchronous().invalidate(enrollmentId);
+    }
+
+    public AsyncCache<String, EnrollmentResponseModel> getCache() {
+        return cache;
+    }
+}
@@ -1,5 +1,9 @@
 package com.champlain.enrollmentsservice.businesslayer.enrollments;
 
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentFilter;
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentBulkResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageResponseModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
 import reactor.core.publisher.Flux;
@@ -8,7 +12,20 @@ import reactor.core.publisher.Mono;
 public interface EnrollmentService {
     Mono<EnrollmentResponseModel> addEnrollment(Mono<EnrollmentRequestModel> enrollmentRequestModel);
 
+    // bulk add, one result per request in the same order
+    Flux<EnrollmentBulkResponseModel> addEnrollments(Flux<EnrollmentRequestModel> enrollmentRequestModels);
+
     Flux<EnrollmentResponseModel> getAllEnrollments();
+
+    // filtered lists, enrollmentYear and semester are optional (semester needs a year)
+    Flux<EnrollmentResponseModel> getEnrollmentsByStudentId(String studentId, Integer enrollmentYear, Semester semester);
+
+    Flux<EnrollmentResponseModel> getEnrollmentsByCourseId(String courseId, Integer enrollmentYear, Semester semester);
+
+    Flux<EnrollmentResponseModel> getEnrollmentsByTerm(Integer enrollmentYear, Semester semester);
+
+    // keyset pagination, pageToken is null for the first page
+    Mono<EnrollmentPageResponseModel> getEnrollmentPage(EnrollmentFilter filter, int size, String pageToken);
     // getbyid
     Mono<EnrollmentResponseModel> getEnrollmentByEnrollmentId(String enrollmentId);
 
@@ -1,28 +1,64 @@
 package com.champlain.enrollmentsservice.businesslayer.enrollments;
 
+import com.champlain.enrollmentsservice.dataaccesslayer.Enrollment;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentFilter;
 import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
+import com.champlain.enrollmentsservice.domainclientlayer.RequestDeadline;
+import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseServiceClient;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.CourseNotFoundException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
 import com.champlain.enrollmentsservice.mapper.EntityModelMapper;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentBulkResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageResponseModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
+import com.champlain.enrollmentsservice.validation.RequestValidator;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @Slf4j
 public class EnrollmentServiceImpl implements EnrollmentService {
 
+    //bulk requests are processed in chunks so memory stays constant whatever the size of the upload
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int BULK_LOOKUP_CONCURRENCY = 32;
+
     private final EnrollmentRepository enrollmentRepository;
     private final StudentServiceClientAsynchronous studentClient;
     private final CourseServiceClient courseClient;
+    private final EnrollmentCache enrollmentCache;
+    //bulk uploads have no deadline of their own (see RequestDeadlineFilter), each chunk's lookups get this one
+    private final Duration bulkChunkTimeout;
 
-    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository, StudentServiceClientAsynchronous studentClient, CourseServiceClient courseClient) {
+    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository, StudentServiceClientAsynchronous studentClient,
+                                 CourseServiceClient courseClient, EnrollmentCache enrollmentCache,
+                                 @Value("${app.request-deadline.default-timeout:10s}") Duration bulkChunkTimeout) {
         this.enrollmentRepository = enrollmentRepository;
         this.studentClient = studentClient;
         this.courseClient = courseClient;
+        this.enrollmentCache = enrollmentCache;
+        this.bulkChunkTimeout = bulkChunkTimeout;
     }
 
 
@@ -30,13 +66,20 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     public Mono<EnrollmentResponseModel> addEnrollment(Mono<EnrollmentRequestModel> enrollmentRequestModel) {
         return enrollmentRequestModel
                 .map(RequestContext::new)
-                .flatMap(this::studentRequestResponse)
-                .flatMap(this::courseRequestResponse)
+                .flatMap(this::studentAndCourseRequestResponse)
                 .map(EntityModelMapper::toEntity)
-                .flatMap(enrollmentRepository::save)
+                .flatMap(this::saveEnrollment)
                 .map(EntityModelMapper::toModel);
     }
 
+    @Override
+    public Flux<EnrollmentBulkResponseModel> addEnrollments(Flux<EnrollmentRequestModel> enrollmentRequestModels) {
+        return enrollmentRequestModels
+                .index()
+                .buffer(BULK_CHUNK_SIZE)
+                .concatMap(this::addEnrollmentChunk);
+    }
+
     @Override
     public Flux<EnrollmentResponseModel> getAllEnrollments() {
         return enrollmentRepository.findAll()
@@ -44,17 +87,76 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     }
 
 
+    @Override
+    public Flux<EnrollmentResponseModel> getEnrollmentsByStudentId(String studentId, Integer enrollmentYear, Semester semester) {
+        Flux<Enrollment> enrollments;
+        if (enrollmentYear == null) {
+            enrollments = enrollmentRepository.findAllByStudentId(studentId);
+        } else if (semester == null) {
+            enrollments = enrollmentRepository.findAllByStudentIdAndEnrollmentYear(studentId, enrollmentYear);
+        } else {
+            enrollments = enrollmentRepository.findAllByStudentIdAndEnrollmentYearAndSemester(studentId, enrollmentYear, semester);
+        }
+        return enrollments.map(EntityModelMapper::toModel);
+    }
+
+    @Override
+    public Flux<EnrollmentResponseModel> getEnrollmentsByCourseId(String courseId, Integer enrollmentYear, Semester semester) {
+        Flux<Enrollment> enrollments;
+        if (enrollmentYear == null) {
+            enrollments = enrollmentRepository.findAllByCourseId(courseId);
+        } else if (semester == null) {
+            enrollments = enrollmentRepository.findAllByCourseIdAndEnrollmentYear(courseId, enrollmentYear);
+        } else {
+            enrollments = enrollmentRepository.findAllByCourseIdAndEnrollmentYearAndSemester(courseId, enrollmentYear, semester);
+        }
+        return enrollments.map(EntityModelMapper::toModel);
+    }
+
+    @Override
+    public Flux<EnrollmentResponseModel> getEnrollmentsByTerm(Integer enrollmentYear, Semester semester) {
+        return enrollmentRepository.findAllByEnrollmentYearAndSemester(enrollmentYear, semester)
+                .map(EntityModelMapper::toModel);
+    }
+
+    /*
+       Keyset pagination: each page is "_id greater than the last _id of the previous page", read in _id order,
+       so a page costs the same whether it is the first or the ten-thousandth.
+       One extra enrollment is read to know whether there is a next page without returning an empty last page.
+     */
+    @Override
+    public Mono<EnrollmentPageResponseModel> getEnrollmentPage(EnrollmentFilter filter, int size, String pageToken) {
+        String afterId = null;
+        if (pageToken != null) {
+            afterId = decodePageToken(pageToken);
+            if (afterId == null) {
+                return ApplicationExceptions.invalidPageToken(pageToken);
+            }
+        }
+
+        return enrollmentRepository.findPage(filter, afterId, size + 1)
+                .collectList()
+                .map(enrollments -> {
+                    boolean hasNext = enrollments.size() > size;
+                    List<Enrollment> page = hasNext ? enrollments.subList(0, size) : enrollments;
+                    String nextPageToken = hasNext ? encodePageToken(page.get(page.size() - 1).getId()) : null;
+                    return new EnrollmentPageResponseModel(
+                            page.stream().map(EntityModelMapper::toModel).toList(),
+                            nextPageToken);
+                });
+    }
+
     @Override
     public Mono<EnrollmentResponseModel> updateEnrollment(Mono<EnrollmentRequestModel> enrollmentRequestModel, String enrollmentId) {
         return enrollmentRepository.findEnrollmentByEnrollmentId(enrollmentId)
                 .flatMap(found -> enrollmentRequestModel
                      .map(RequestContext::new)
-                     .flatMap(this::studentRequestResponse)
-                     .flatMap(this::courseRequestResponse)
+                     .flatMap(this::studentAndCourseRequestResponse)
                         .map(EntityModelMapper::toEntity)
                         .doOnNext(e -> e.setEnrollmentId(enrollmentId))
                         .doOnNext(e -> e.setId(found.getId())))
-                        .flatMap(enrollmentRepository::save)
+                        .flatMap(this::saveEnrollment)
+                        .doOnNext(saved -> enrollmentCache.invalidate(enrollmentId))
                         .map(EntityModelMapper::toModel);
     }
 
@@ -63,27 +165,202 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         return enrollmentRepository.findEnrollmentByEnrollmentId(enrollmentId)
                 .flatMap(found -> enrollmentRepository.delete(found)
                 .then(Mono.just(found))) //create a new mono using the found entity
+                .doOnNext(deleted -> enrollmentCache.invalidate(enrollmentId))
                 .map(EntityModelMapper::toModel);    }
 
 
     @Override
     public Mono<EnrollmentResponseModel> getEnrollmentByEnrollmentId(String enrollmentId) {
-        return enrollmentRepository.findEnrollmentByEnrollmentId(enrollmentId)
+        return enrollmentCache.get(enrollmentId, id -> enrollmentRepository.findEnrollmentByEnrollmentId(id)
                 .doOnNext(c -> log.debug("Enrollment found has id: {}", c.getEnrollmentId()))
-                .map(EntityModelMapper::toModel);
+                .map(EntityModelMapper::toModel));
     }
 
 
 
-    private Mono<RequestContext> studentRequestResponse(RequestContext rc){
-        return studentClient.getStudentByStudentId(rc.getEnrollmentRequestModel().studentId())
-                .doOnNext(rc::setStudentResponseModel)
-                .thenReturn(rc);
+    /*
+       No "find, then save" check for duplicates: it would cost a round trip and two concurrent requests could
+       both pass it. The student_course_term_unique index rejects the second write atomically instead.
+     */
+    private Mono<Enrollment> saveEnrollment(Enrollment enrollment) {
+        return enrollmentRepository.save(enrollment)
+                .onErrorResume(DuplicateKeyException.class, ex -> ApplicationExceptions.duplicateEnrollment(enrollment));
+    }
+
+    /*
+       The student and course lookups are independent, so both are fired at the same time and the
+       write waits for the slower one instead of the sum of both.
+       Each lookup is materialized so that a failure in one doesn't cancel the other, which lets us
+       keep the sequential error precedence: a student error always wins over a course error.
+     */
+    private Mono<RequestContext> studentAndCourseRequestResponse(RequestContext rc) {
+        Mono<Signal<StudentResponseModel>> student = Mono.defer(() ->
+                        studentClient.getStudentByStudentId(rc.getEnrollmentRequestModel().studentId()))
+                .materialize();
+        Mono<Signal<CourseResponseModel>> course = Mono.defer(() ->
+                        courseClient.getCourseByCourseId(rc.getEnrollmentRequestModel().courseId()))
+                .materialize();
+
+        return Mono.zip(student, course)
+                .flatMap(signals -> {
+                    Signal<StudentResponseModel> studentSignal = signals.getT1();
+                    Signal<CourseResponseModel> courseSignal = signals.getT2();
+
+                    if (studentSignal.isOnError()) {
+                        return Mono.error(studentSignal.getThrowable());
+                    }
+                    if (courseSignal.isOnError()) {
+                        return Mono.error(courseSignal.getThrowable());
+                    }
+                    if (studentSignal.hasValue()) {
+                        rc.setStudentResponseModel(studentSignal.get());
+                    }
+                    if (courseSignal.hasValue()) {
+                        rc.setCourseResponseModel(courseSignal.get());
+                    }
+                    return Mono.just(rc);
+                });
+    }
+
+    //a line of a bulk request, error is set as soon as the line can't be enrolled
+    private record BulkLine(Long line, RequestContext requestContext, Throwable error) {
+
+        BulkLine failed(Throwable ex) {
+            return new BulkLine(line, requestContext, ex);
+        }
+    }
+
+    /*
+       Within a chunk every distinct studentId and courseId is looked up once, whatever the number of
+       lines referring to it, and all the enrollments that could be built are written with a single insert.
+       The lookups are bounded by the request's deadline when it sent one, by bulkChunkTimeout from the start of
+       the chunk otherwise; the lines whose lookups ran out of time fail with a 504 and the upload goes on.
+     */
+    private Flux<EnrollmentBulkResponseModel> addEnrollmentChunk(List<Tuple2<Long, EnrollmentRequestModel>> chunk) {
+        return Flux.fromIterable(chunk)
+                .concatMap(this::validateBulkLine)
+                .collectList()
+                .flatMap(lines -> Mono.zip(
+                                lookupDistinct(lines, EnrollmentRequestModel::studentId, studentClient::getStudentByStudentId),
+                                lookupDistinct(lines, EnrollmentRequestModel::courseId, courseClient::getCourseByCourseId))
+                        .contextWrite(RequestDeadline.inUnlessSet(bulkChunkTimeout))
+                        .map(lookups -> lines.stream()
+                                .map(line -> resolveBulkLine(line, lookups.getT1(), lookups.getT2()))
+                                .toList()))
+                .flatMapMany(this::insertBulkLines);
+    }
+
+    private Mono<BulkLine> validateBulkLine(Tuple2<Long, EnrollmentRequestModel> indexed) {
+        return Mono.just(indexed.getT2())
+                .transform(RequestValidator.validateBody())
+                .map(rm -> new BulkLine(indexed.getT1(), new RequestContext(rm), null))
+                .onErrorResume(ex -> Mono.just(new BulkLine(indexed.getT1(), null, ex)));
+    }
+
+    private <T> Mono<Map<String, Signal<T>>> lookupDistinct(List<BulkLine> lines,
+                                                           Function<EnrollmentRequestModel, String> idOf,
+                                                           Function<String, Mono<T>> lookup) {
+        return Flux.fromStream(lines.stream()
+                        .filter(line -> line.error() == null)
+                        .map(line -> idOf.apply(line.requestContext().getEnrollmentRequestModel()))
+                        .distinct())
+                .flatMap(id -> Mono.defer(() -> lookup.apply(id))
+                        .materialize()
+                        .map(signal -> Tuples.of(id, signal)), BULK_LOOKUP_CONCURRENCY)
+                .collectMap(Tuple2::getT1, Tuple2::getT2);
+    }
+
+    private BulkLine resolveBulkLine(BulkLine line,
+                                     Map<String, Signal<StudentResponseModel>> students,
+                                     Map<String, Signal<CourseResponseModel>> courses) {
+        if (line.error() != null) {
+            return line;
+        }
+        RequestContext rc = line.requestContext();
+        Signal<StudentResponseModel> student = students.get(rc.getEnrollmentRequestModel().studentId());
+        Signal<CourseResponseModel> course = courses.get(rc.getEnrollmentRequestModel().courseId());
+
+        if (student.isOnError()) {
+            return line.failed(student.getThrowable());
+        }
+        if (!student.hasValue()) {
+            return line.failed(new StudentNotFoundException(rc.getEnrollmentRequestModel().studentId()));
+        }
+        if (course.isOnError()) {
+            return line.failed(course.getThrowable());
+        }
+        if (!course.hasValue()) {
+            return line.failed(new CourseNotFoundException(rc.getEnrollmentRequestModel().courseId()));
+        }
+        rc.setStudentResponseModel(student.get());
+        rc.setCourseResponseModel(course.get());
+        rc.setEnrollment(EntityModelMapper.toEntity(rc));
+        return line;
+    }
+
+    private Flux<EnrollmentBulkResponseModel> insertBulkLines(List<BulkLine> lines) {
+        List<Enrollment> enrollments = lines.stream()
+                .filter(line -> line.error() == null)
+                .map(line -> line.requestContext().getEnrollment())
+                .toList();
+
+        Mono<List<BulkLine>> written = enrollments.isEmpty()
+                ? Mono.just(lines)
+                : enrollmentRepository.insert(enrollments)
+                        .then(Mono.just(lines))
+                        .onErrorResume(DuplicateKeyException.class, ex -> resolveDuplicateBulkLines(lines))
+                        //the whole chunk is reported as failed, lines already in error keep their own error
+                        .onErrorResume(ex -> Mono.just(lines.stream()
+                                .map(line -> line.error() == null ? line.failed(ex) : line)
+                                .toList()));
+
+        return written.flatMapIterable(Function.identity())
+                .map(this::toBulkResponseModel);
+    }
+
+    /*
+       The insert is ordered, so the lines before the duplicate were written and the ones after it weren't.
+       Only on this (rare) path, each remaining line is checked and written on its own to find out which ones are duplicates.
+     */
+    private Mono<List<BulkLine>> resolveDuplicateBulkLines(List<BulkLine> lines) {
+        return Flux.fromIterable(lines)
+                .concatMap(line -> {
+                    if (line.error() != null) {
+                        return Mono.just(line);
+                    }
+                    Enrollment enrollment = line.requestContext().getEnrollment();
+                    return enrollmentRepository.findEnrollmentByEnrollmentId(enrollment.getEnrollmentId())
+                            .switchIfEmpty(Mono.defer(() -> {
+                                enrollment.setId(null);
+                                return saveEnrollment(enrollment);
+                            }))
+                            .thenReturn(line)
+                            .onErrorResume(ex -> Mono.just(line.failed(ex)));
+                })
+                .collectList();
+    }
+
+    private EnrollmentBulkResponseModel toBulkResponseModel(BulkLine line) {
+        if (line.error() != null) {
+            return EnrollmentBulkResponseModel.failed(line.line(),
+                    ApplicationExceptions.httpStatusOf(line.error()).value(),
+                    line.error().getMessage());
+        }
+        return EnrollmentBulkResponseModel.created(line.line(),
+                EntityModelMapper.toModel(line.requestContext().getEnrollment()));
+    }
+
+    private static String encodePageToken(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
     }
 
-    private Mono<RequestContext> courseRequestResponse(RequestContext rc) {
-        return courseClient.getCourseByCourseId(rc.getEnrollmentRequestModel().courseId())
-                .doOnNext(rc::setCourseResponseModel)
-                .thenReturn(rc);
+    //null when the token wasn't issued by us
+    private static String decodePageToken(String pageToken) {
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            return ObjectId.isValid(id) ? id : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
     }
 }
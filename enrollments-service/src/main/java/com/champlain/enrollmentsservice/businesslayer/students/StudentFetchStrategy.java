@@ -0,0 +1,7 @@
+package com.champlain.enrollmentsservice.businesslayer.students;
+
+//how StudentService.getStudents fetches students by databaseRowId
+public enum StudentFetchStrategy {
+    ROW,   //one GET /row/{id} per student
+    RANGE  //one GET /row/range per chunk of contiguous rows
+}
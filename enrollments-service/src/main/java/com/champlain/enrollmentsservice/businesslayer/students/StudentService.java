@@ -8,10 +8,12 @@ import java.util.List;
 
 public interface StudentService {
     Flux<StudentResponseModel> getAllStudents();
-    List<StudentResponseModel> get1000StudentsSyncLoop();
-    List<StudentResponseModel> get1000StudentsSyncParallel();
+    Mono<List<StudentResponseModel>> get1000StudentsSyncLoop();
+    Mono<List<StudentResponseModel>> get1000StudentsSyncParallel();
+    Mono<List<StudentResponseModel>> get1000StudentsSyncVirtual();
     Flux<StudentResponseModel> get1000StudentsAsync();
     Flux<StudentResponseModel> get1000StudentsAsyncParallel();
     Flux<StudentResponseModel> get1000StudentsAsyncBounded();
+    Flux<StudentResponseModel> getStudents(int count, StudentFetchStrategy strategy, int concurrency, int prefetch, int chunkSize);
     Mono<StudentResponseModel> getStudentByStudentId(String studentId);
 }
@@ -1,5 +1,6 @@
 package com.champlain.enrollmentsservice.businesslayer.students;
 
+import com.champlain.enrollmentsservice.domainclientlayer.BlockingCalls;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientSynchronous;
@@ -14,10 +15,14 @@ public class StudentServiceImpl implements StudentService {
 
     private final StudentServiceClientSynchronous studentServiceClientSynchronous;
     private final StudentServiceClientAsynchronous studentServiceClientAsynchronous;
+    private final BlockingCalls blockingCalls;
 
-    public StudentServiceImpl(StudentServiceClientSynchronous studentServiceClientSynchronous, StudentServiceClientAsynchronous studentServiceClientAsynchronous) {
+    public StudentServiceImpl(StudentServiceClientSynchronous studentServiceClientSynchronous,
+                              StudentServiceClientAsynchronous studentServiceClientAsynchronous,
+                              BlockingCalls studentBlockingCalls) {
         this.studentServiceClientSynchronous = studentServiceClientSynchronous;
         this.studentServiceClientAsynchronous = studentServiceClientAsynchronous;
+        this.blockingCalls = studentBlockingCalls;
     }
 
     @Override
@@ -25,15 +30,20 @@ public class StudentServiceImpl implements StudentService {
         return studentServiceClientAsynchronous.getAllStudents();
     }
 
-    //synchronous
+    //synchronous, the RestTemplate calls block so they run on the blocking-calls scheduler rather than the event loop
     @Override
-    public List<StudentResponseModel> get1000StudentsSyncLoop() {
-        return studentServiceClientSynchronous.get1000StudentsLoop();
+    public Mono<List<StudentResponseModel>> get1000StudentsSyncLoop() {
+        return blockingCalls.offload("get1000StudentsSyncLoop", studentServiceClientSynchronous::get1000StudentsLoop);
     }
 
     @Override
-    public List<StudentResponseModel> get1000StudentsSyncParallel() {
-        return studentServiceClientSynchronous.get1000StudentsSyncParallel();
+    public Mono<List<StudentResponseModel>> get1000StudentsSyncParallel() {
+        return blockingCalls.offload("get1000StudentsSyncParallel", studentServiceClientSynchronous::get1000StudentsSyncParallel);
+    }
+
+    @Override
+    public Mono<List<StudentResponseModel>> get1000StudentsSyncVirtual() {
+        return Mono.fromFuture(studentServiceClientSynchronous::get1000StudentsSyncVirtual);
     }
 
     //asynchronous
@@ -52,6 +62,14 @@ public class StudentServiceImpl implements StudentService {
         return studentServiceClientAsynchronous.get1000StudentsAsyncBounded();
     }
 
+    @Override
+    public Flux<StudentResponseModel> getStudents(int count, StudentFetchStrategy strategy, int concurrency, int prefetch, int chunkSize) {
+        return switch (strategy) {
+            case ROW -> studentServiceClientAsynchronous.getStudents(count, concurrency, prefetch);
+            case RANGE -> studentServiceClientAsynchronous.getStudentsByRowRange(count, chunkSize, concurrency, prefetch);
+        };
+    }
+
     @Override
     public Mono<StudentResponseModel> getStudentByStudentId(String studentId) {
         return studentServiceClientAsynchronous.getStudentByStudentId(studentId);
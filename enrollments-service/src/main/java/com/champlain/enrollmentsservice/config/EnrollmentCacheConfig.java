@@ -0,0 +1,30 @@
+package com.champlain.enrollmentsservice.config;
+
+import com.champlain.enrollmentsservice.businesslayer.enrollments.EnrollmentCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class EnrollmentCacheConfig {
+
+    @Bean
+    public EnrollmentCache enrollmentCache(@Value("${app.enrollments.cache.maximum-size:10000}") long maximumSize,
+                                           @Value("${app.enrollments.cache.expire-after-write:30s}") Duration expireAfterWrite,
+                                           MeterRegistry meterRegistry) {
+        var enrollmentCache = new EnrollmentCache(maximumSize, expireAfterWrite);
+
+        // hit/miss/eviction counts and size show up under /actuator/metrics/cache.* with cache=enrollments
+        CaffeineCacheMetrics.monitor(meterRegistry, enrollmentCache.getCache().synchronous(), "enrollments");
+        Gauge.builder("cache.hit.ratio", enrollmentCache.getCache(), cache -> cache.synchronous().stats().hitRate())
+                .tag("cache", "enrollments")
+                .description("Share of lookups served from the cache since startup")
+                .register(meterRegistry);
+        return enrollmentCache;
+    }
+}
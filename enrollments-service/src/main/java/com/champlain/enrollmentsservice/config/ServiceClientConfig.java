@@ -1,36 +1,132 @@
 package com.champlain.enrollmentsservice.config;
 
+import com.champlain.enrollmentsservice.domainclientlayer.AdaptiveConcurrencyLimiter;
+import com.champlain.enrollmentsservice.domainclientlayer.BlockingCalls;
+import com.champlain.enrollmentsservice.domainclientlayer.ClientMetrics;
+import com.champlain.enrollmentsservice.domainclientlayer.ClientResilience;
+import com.champlain.enrollmentsservice.domainclientlayer.RequestHedging;
+import com.champlain.enrollmentsservice.domainclientlayer.ServiceClientTransport;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseServiceClient;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientRSocket;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientSynchronous;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.rsocket.RSocketRequester;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+
 @Configuration
 @Slf4j
 public class ServiceClientConfig {
 
+    private final ServiceClientTransport transport;
+    private final boolean concurrencyLimitEnabled;
+
+    public ServiceClientConfig(@Value("${app.service-clients.http2:false}") boolean http2,
+                               @Value("${app.service-clients.compression:false}") boolean compression,
+                               @Value("${app.service-clients.codec:json}") ServiceClientTransport.Codec codec,
+                               @Value("${app.service-clients.concurrency-limit.enabled:true}") boolean concurrencyLimitEnabled) {
+        this.transport = new ServiceClientTransport(http2, compression, codec);
+        this.concurrencyLimitEnabled = concurrencyLimitEnabled;
+    }
+
+    //one bulkhead and circuit breaker per downstream service, with the same settings
+    @Bean
+    public ClientResilience.Settings clientResilienceSettings(@Value("${app.service-clients.resilience.timeout:2s}") Duration timeout,
+                                                              @Value("${app.service-clients.resilience.max-concurrent-calls:200}") int maxConcurrentCalls,
+                                                              @Value("${app.service-clients.resilience.failure-rate-threshold:50}") float failureRateThreshold,
+                                                              @Value("${app.service-clients.resilience.sliding-window-size:50}") int slidingWindowSize,
+                                                              @Value("${app.service-clients.resilience.minimum-number-of-calls:20}") int minimumNumberOfCalls,
+                                                              @Value("${app.service-clients.resilience.wait-duration-in-open-state:10s}") Duration waitDurationInOpenState,
+                                                              @Value("${app.service-clients.resilience.max-retries:2}") int maxRetries,
+                                                              @Value("${app.service-clients.resilience.min-backoff:50ms}") Duration minBackoff,
+                                                              @Value("${app.service-clients.resilience.max-backoff:1s}") Duration maxBackoff) {
+        return new ClientResilience.Settings(timeout, maxConcurrentCalls, failureRateThreshold, slidingWindowSize,
+                minimumNumberOfCalls, waitDurationInOpenState, maxRetries, minBackoff, maxBackoff);
+    }
+
+    //one adaptive limit per downstream service, with the same settings
+    @Bean
+    public AdaptiveConcurrencyLimiter.Settings concurrencyLimiterSettings(@Value("${app.service-clients.concurrency-limit.initial-limit:20}") int initialLimit,
+                                                                          @Value("${app.service-clients.concurrency-limit.min-limit:1}") int minLimit,
+                                                                          @Value("${app.service-clients.concurrency-limit.max-limit:200}") int maxLimit,
+                                                                          @Value("${app.service-clients.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                                                          @Value("${app.service-clients.concurrency-limit.rtt-tolerance:2.0}") double rttTolerance,
+                                                                          @Value("${app.service-clients.concurrency-limit.max-queue-size:1000}") int maxQueueSize,
+                                                                          @Value("${app.service-clients.concurrency-limit.max-queue-wait:1s}") Duration maxQueueWait) {
+        return new AdaptiveConcurrencyLimiter.Settings(initialLimit, minLimit, maxLimit, backoffRatio, rttTolerance,
+                maxQueueSize, maxQueueWait);
+    }
+
     @Bean
     public CourseServiceClient courseServiceClient(@Value("${app.courses-service.host}") String courseServiceHost,
-                                                   @Value("${app.courses-service.port}") String courseServicePort) {
+                                                   @Value("${app.courses-service.port}") String courseServicePort,
+                                                   @Value("${app.courses-service.catalog.max-staleness:30s}") Duration catalogMaxStaleness,
+                                                   ClientResilience.Settings resilienceSettings,
+                                                   AdaptiveConcurrencyLimiter.Settings limiterSettings,
+                                                   MeterRegistry meterRegistry) {
 
         var baseUrl = "http://" + courseServiceHost + ":" + courseServicePort + "/api/v1/courses";
         log.debug("CourseServiceClient baseUrl: {}", baseUrl);
-        return new CourseServiceClient(createWebClient(baseUrl));
+        // call timings, in-flight calls, errors, breaker state, concurrency limit and rejections show up under
+        // /actuator/metrics/enrollments.client.* with client=courses-service
+        return new CourseServiceClient(createWebClient(baseUrl), catalogMaxStaleness,
+                new ClientMetrics(meterRegistry, "courses-service"),
+                clientResilience("courses-service", resilienceSettings, limiterSettings, meterRegistry));
     }
 
     @Bean
     public StudentServiceClientAsynchronous studentServiceClientAsynchronous(@Value("${app.students-service.host}") String studentServiceHost,
-                                                                 @Value("${app.students-service.port}") String studentServicePort) {
+                                                                 @Value("${app.students-service.port}") String studentServicePort,
+                                                                 @Value("${app.students-service.cache.maximum-size:10000}") long cacheMaximumSize,
+                                                                 @Value("${app.students-service.cache.expire-after-write:10m}") Duration cacheExpireAfterWrite,
+                                                                 @Value("${app.students-service.cache.refresh-after-write:1m}") Duration cacheRefreshAfterWrite,
+                                                                 @Value("${app.students-service.batch.max-size:0}") int batchMaxSize,
+                                                                 @Value("${app.students-service.batch.window:5ms}") Duration batchWindow,
+                                                                 @Value("${app.students-service.rsocket.enabled:false}") boolean rSocketEnabled,
+                                                                 @Value("${app.students-service.rsocket.port:7102}") int rSocketPort,
+                                                                 @Value("${app.students-service.hedging.enabled:false}") boolean hedgingEnabled,
+                                                                 @Value("${app.students-service.hedging.percentile:0.95}") double hedgingPercentile,
+                                                                 @Value("${app.students-service.hedging.min-delay:5ms}") Duration hedgingMinDelay,
+                                                                 @Value("${app.students-service.hedging.budget:0.05}") double hedgingBudget,
+                                                                 @Value("${app.students-service.hedging.window-size:1000}") int hedgingWindowSize,
+                                                                 RSocketRequester.Builder rSocketRequesterBuilder,
+                                                                 ClientResilience.Settings resilienceSettings,
+                                                                 AdaptiveConcurrencyLimiter.Settings limiterSettings,
+                                                                 MeterRegistry meterRegistry) {
 
         var baseUrl = "http://" + studentServiceHost + ":" + studentServicePort + "/api/v1/students";
         log.debug("StudentServiceClientAsynchronous baseUrl: {}", baseUrl);
-        return new StudentServiceClientAsynchronous(createWebClient(baseUrl));
+        var metrics = new ClientMetrics(meterRegistry, "students-service");
+        var resilience = clientResilience("students-service", resilienceSettings, limiterSettings, meterRegistry);
+        StudentServiceClientRSocket rSocketClient = null;
+        if (rSocketEnabled) {
+            log.debug("StudentServiceClientRSocket tcp://{}:{}", studentServiceHost, rSocketPort);
+            rSocketClient = new StudentServiceClientRSocket(rSocketRequesterBuilder.tcp(studentServiceHost, rSocketPort),
+                    metrics, resilience);
+        }
+        var hedging = hedgingEnabled
+                ? new RequestHedging("students-service",
+                        new RequestHedging.Settings(hedgingPercentile, hedgingMinDelay, hedgingBudget, hedgingWindowSize),
+                        meterRegistry)
+                : null;
+        var client = new StudentServiceClientAsynchronous(createWebClient(baseUrl),
+                cacheMaximumSize, cacheExpireAfterWrite, cacheRefreshAfterWrite, batchMaxSize, batchWindow,
+                metrics, resilience, hedging, rSocketClient);
+
+        // hit/miss/eviction stats show up under /actuator/metrics/cache.* with cache=students
+        // call timings, in-flight calls, errors, breaker state, concurrency limit, rejections and hedges under
+        // /actuator/metrics/enrollments.client.* with client=students-service
+        CaffeineCacheMetrics.monitor(meterRegistry, client.getStudentCache().synchronous(), "students");
+        return client;
     }
 
     @Bean
@@ -39,24 +135,40 @@ public class ServiceClientConfig {
         return new RestTemplate();
     }
 
+    //the scheduler the RestTemplate calls to students-service run on, closed with the context
+    @Bean
+    public BlockingCalls studentBlockingCalls(@Value("${app.students-service.blocking-calls.max-threads:20}") int maxThreads,
+                                              @Value("${app.students-service.blocking-calls.max-queued-per-thread:10}") int maxQueuedPerThread,
+                                              MeterRegistry meterRegistry) {
+        return new BlockingCalls("students-service", new BlockingCalls.Settings(maxThreads, maxQueuedPerThread), meterRegistry);
+    }
+
     @Bean
     public StudentServiceClientSynchronous studentServiceClientSynchronous(@Value("${app.students-service.host}") String studentServiceHost,
                                                                            @Value("${app.students-service.port}") String studentServicePort,
                                                                            RestTemplate restTemplate,
-                                                                           ObjectMapper mapper
+                                                                           ObjectMapper mapper,
+                                                                           BlockingCalls studentBlockingCalls
     ) {
 
         var baseUrl = "http://" + studentServiceHost + ":" + studentServicePort + "/api/v1/students";
         log.debug("StudentServiceClientSynchronous baseUrl: {}", baseUrl);
-        return new StudentServiceClientSynchronous(baseUrl, restTemplate, mapper);
+        // these calls made on the event loop anyway, a missing offload, under /actuator/metrics/enrollments.blocking.guard.violations
+        return new StudentServiceClientSynchronous(baseUrl, restTemplate, mapper, studentBlockingCalls);
     }
 
 
+    private ClientResilience clientResilience(String client, ClientResilience.Settings settings,
+                                              AdaptiveConcurrencyLimiter.Settings limiterSettings, MeterRegistry meterRegistry) {
+        var limiter = concurrencyLimitEnabled
+                ? new AdaptiveConcurrencyLimiter(client, limiterSettings, meterRegistry)
+                : null;
+        return new ClientResilience(client, settings, limiter, meterRegistry);
+    }
+
     private WebClient createWebClient(String baseUrl) {
-        log.info("base url: {}", baseUrl);
-        return WebClient.builder()
-                .baseUrl(baseUrl)
-                .build();
+        log.info("base url: {}, transport: {}", baseUrl, transport);
+        return transport.webClientBuilder(baseUrl).build();
     }
 
 }
@@ -5,7 +5,26 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
 
+//indexes are created at startup by EnrollmentIndexInitializer
+//_id closes each compound index so keyset pages (_id > last, sorted by _id) are read straight off the index,
+//which takes an equality on every field before it: student, course and year cover the /page filters without a full term
+//student_course_term_unique makes mongo reject a second enrollment of a student in the same course and term
+@Document("enrollment")
+@CompoundIndexes({
+        @CompoundIndex(name = "student_term", def = "{'studentId': 1, 'enrollmentYear': 1, 'semester': 1, '_id': 1}"),
+        @CompoundIndex(name = "course_term", def = "{'courseId': 1, 'enrollmentYear': 1, 'semester': 1, '_id': 1}"),
+        @CompoundIndex(name = "term", def = "{'enrollmentYear': 1, 'semester': 1, '_id': 1}"),
+        @CompoundIndex(name = "student", def = "{'studentId': 1, '_id': 1}"),
+        @CompoundIndex(name = "course", def = "{'courseId': 1, '_id': 1}"),
+        @CompoundIndex(name = "year", def = "{'enrollmentYear': 1, '_id': 1}"),
+        @CompoundIndex(name = "student_course_term_unique",
+                def = "{'studentId': 1, 'courseId': 1, 'enrollmentYear': 1, 'semester': 1}", unique = true)
+})
 @Data
 @Builder
 @AllArgsConstructor
@@ -14,6 +33,7 @@ public class Enrollment {
 
     @Id
     private String id;
+    @Indexed(name = "enrollmentId_unique", unique = true)
     private String enrollmentId;
     private Integer enrollmentYear;
     private Semester semester;
@@ -0,0 +1,8 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+//optional filters for enrollment listings, null means no filter on that field
+public record EnrollmentFilter(String studentId,
+                               String courseId,
+                               Integer enrollmentYear,
+                               Semester semester) {
+}
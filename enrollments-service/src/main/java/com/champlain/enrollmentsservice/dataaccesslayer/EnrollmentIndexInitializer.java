@@ -0,0 +1,53 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/*
+   Creates the indexes declared on Enrollment before the application takes traffic.
+   Spring Data's auto-index-creation is off by default, and without these indexes every lookup by
+   enrollmentId, student, course or term is a collection scan.
+   A unique index that can't be built because the collection already holds duplicates (seeded again on every restart
+   before DataLoaderService skipped existing enrollments) is logged and skipped, the service starts without it.
+   migrations/remove-duplicate-enrollments.js removes the duplicates, the next start builds the index.
+ */
+@Component
+@Slf4j
+public class EnrollmentIndexInitializer implements InitializingBean {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public EnrollmentIndexInitializer(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        ensureIndexes().block(Duration.ofSeconds(30));
+    }
+
+    public Mono<Void> ensureIndexes() {
+        var resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(Enrollment.class);
+
+        return Flux.fromIterable(resolver.resolveIndexFor(Enrollment.class))
+                .concatMap(index -> indexOps.ensureIndex(index)
+                        .onErrorResume(DuplicateKeyException.class, ex -> {
+                            log.error("Index {} on enrollments not built, the collection holds duplicates, "
+                                    + "run migrations/remove-duplicate-enrollments.js and restart: {}",
+                                    index.getIndexOptions().get("name"), ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .doOnNext(name -> log.info("Ensured index {} on enrollments", name))
+                .then();
+    }
+}
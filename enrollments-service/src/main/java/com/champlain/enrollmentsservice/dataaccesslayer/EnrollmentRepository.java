@@ -2,10 +2,24 @@ package com.champlain.enrollmentsservice.dataaccesslayer;
 
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface EnrollmentRepository extends ReactiveMongoRepository<Enrollment, String> {
+public interface EnrollmentRepository extends ReactiveMongoRepository<Enrollment, String>, EnrollmentRepositoryCustom {
 
     Mono<Enrollment> findEnrollmentByEnrollmentId(String enrollmentId);
+
+    //served by the student_term index
+    Flux<Enrollment> findAllByStudentId(String studentId);
+    Flux<Enrollment> findAllByStudentIdAndEnrollmentYear(String studentId, Integer enrollmentYear);
+    Flux<Enrollment> findAllByStudentIdAndEnrollmentYearAndSemester(String studentId, Integer enrollmentYear, Semester semester);
+
+    //served by the course_term index
+    Flux<Enrollment> findAllByCourseId(String courseId);
+    Flux<Enrollment> findAllByCourseIdAndEnrollmentYear(String courseId, Integer enrollmentYear);
+    Flux<Enrollment> findAllByCourseIdAndEnrollmentYearAndSemester(String courseId, Integer enrollmentYear, Semester semester);
+
+    //served by the term index
+    Flux<Enrollment> findAllByEnrollmentYearAndSemester(Integer enrollmentYear, Semester semester);
 }
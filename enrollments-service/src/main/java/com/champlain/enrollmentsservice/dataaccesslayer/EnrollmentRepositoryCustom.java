@@ -0,0 +1,9 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import reactor.core.publisher.Flux;
+
+public interface EnrollmentRepositoryCustom {
+
+    //keyset page: up to limit enrollments matching the filter with an _id after afterId (null for the first page), in _id order
+    Flux<Enrollment> findPage(EnrollmentFilter filter, String afterId, int limit);
+}
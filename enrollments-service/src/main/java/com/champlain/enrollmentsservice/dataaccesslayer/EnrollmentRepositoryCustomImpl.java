@@ -0,0 +1,42 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class EnrollmentRepositoryCustomImpl implements EnrollmentRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public EnrollmentRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<Enrollment> findPage(EnrollmentFilter filter, String afterId, int limit) {
+        Query query = new Query();
+
+        if (filter.studentId() != null) {
+            query.addCriteria(where("studentId").is(filter.studentId()));
+        }
+        if (filter.courseId() != null) {
+            query.addCriteria(where("courseId").is(filter.courseId()));
+        }
+        if (filter.enrollmentYear() != null) {
+            query.addCriteria(where("enrollmentYear").is(filter.enrollmentYear()));
+        }
+        if (filter.semester() != null) {
+            query.addCriteria(where("semester").is(filter.semester()));
+        }
+        if (afterId != null) {
+            query.addCriteria(where("_id").gt(new ObjectId(afterId)));
+        }
+
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return mongoTemplate.find(query, Enrollment.class);
+    }
+}
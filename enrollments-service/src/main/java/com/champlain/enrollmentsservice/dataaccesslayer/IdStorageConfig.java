@@ -0,0 +1,68 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import org.bson.BsonBinarySubType;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+/*
+   How enrollmentId, studentId and courseId are stored, app.ids.storage:
+   - string (default): the 36 char canonical form
+   - binary: BSON Binary subtype 4 (standard UUID), 16 bytes, see the binary-ids profile.
+     Existing documents are converted with migrations/enrollment-ids-to-binary.js
+   The fields stay Strings in Enrollment and in the REST api: the converter is applied when documents are written
+   and read, and to the values of queries on these fields, so repository methods don't change.
+ */
+@Configuration
+public class IdStorageConfig {
+
+    static final List<String> ID_PROPERTIES = List.of("enrollmentId", "studentId", "courseId");
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(@Value("${app.ids.storage:string}") String idStorage) {
+        if (!"binary".equals(idStorage)) {
+            return MongoCustomConversions.create(adapter -> {
+            });
+        }
+        return MongoCustomConversions.create(adapter -> adapter.configurePropertyConversions(registrar ->
+                ID_PROPERTIES.forEach(property ->
+                        registrar.registerConverter(Enrollment.class, property, new UuidBinaryConverter()))));
+    }
+
+    static class UuidBinaryConverter implements MongoValueConverter<String, Object> {
+
+        @Override
+        public String read(Object value, MongoConversionContext context) {
+            if (value instanceof Binary binary && binary.getType() == BsonBinarySubType.UUID_STANDARD.getValue()) {
+                ByteBuffer bytes = ByteBuffer.wrap(binary.getData());
+                return new UUID(bytes.getLong(), bytes.getLong()).toString();
+            }
+            //not migrated yet
+            return value.toString();
+        }
+
+        @Override
+        public Object write(String value, MongoConversionContext context) {
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(value);
+            } catch (IllegalArgumentException e) {
+                //not a UUID, stored (and looked up) as is, so it still can't match any converted id
+                return value;
+            }
+            byte[] bytes = ByteBuffer.allocate(16)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array();
+            return new Binary(BsonBinarySubType.UUID_STANDARD, bytes);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+   How many calls to one downstream service may be in flight, adapted to how fast the service answers (AIMD):
+
+   increase  +1 per limit calls that answered in time while at least half the limit was in use
+   decrease  limit * backoffRatio when a call failed (timeout, connection error, 5xx) or when the smoothed round trip
+             time went over rttTolerance times the baseline, the service is then queueing the calls. At most once
+             per limit calls, so one burst of slow answers doesn't take the limit down to minLimit.
+   baseline  the shortest round trip time of the current and the previous BASELINE_WINDOW calls, so it follows the
+             service when it gets slower for good
+
+   Calls over the limit wait their turn, at most maxQueueSize of them for at most maxQueueWait, the others end as a
+   ServiceUnavailableException (503). Streams take a slot for as long as they run but don't count as round trips.
+
+   enrollments.client.concurrency.limit   gauge tagged by client
+   enrollments.client.concurrency.queued  gauge tagged by client, the calls waiting for a slot
+   enrollments.client.rejections          counter tagged by client and reason limit-exceeded
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public static final String LIMIT = "enrollments.client.concurrency.limit";
+    public static final String QUEUED = "enrollments.client.concurrency.queued";
+
+    private static final int BASELINE_WINDOW = 500;
+    //weight of the latest round trip in the smoothed one
+    private static final double SMOOTHING = 0.1;
+
+    public record Settings(int initialLimit,
+                           int minLimit,
+                           int maxLimit,
+                           double backoffRatio,
+                           double rttTolerance,
+                           int maxQueueSize,
+                           Duration maxQueueWait) {
+    }
+
+    private final String client;
+    private final Settings settings;
+    private final Counter rejections;
+
+    //all guarded by this
+    private double limit;
+    private int inFlight;
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+    private double smoothedRtt;
+    private long baselineRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+    private int samplesSinceDecrease;
+
+    public AdaptiveConcurrencyLimiter(String client, Settings settings, MeterRegistry registry) {
+        this.client = client;
+        this.settings = settings;
+        this.limit = settings.initialLimit();
+
+        Gauge.builder(LIMIT, this, AdaptiveConcurrencyLimiter::getLimit)
+                .tags(Tags.of("client", client))
+                .register(registry);
+        Gauge.builder(QUEUED, this, AdaptiveConcurrencyLimiter::getQueued)
+                .tags(Tags.of("client", client))
+                .register(registry);
+        this.rejections = Counter.builder(ClientResilience.REJECTIONS)
+                .tags(Tags.of("client", client, "reason", "limit-exceeded"))
+                .register(registry);
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    //a round trip, timed from getting a slot to the answer
+    public <T> Mono<T> limit(Mono<T> call) {
+        return Mono.usingWhen(acquire(),
+                permit -> call,
+                permit -> Mono.fromRunnable(() -> release(permit, false, true)),
+                (permit, ex) -> Mono.fromRunnable(() -> release(permit, ClientResilience.isServiceFailure(ex), true)),
+                permit -> Mono.fromRunnable(() -> release(permit, false, false)));
+    }
+
+    public <T> Flux<T> limit(Flux<T> call) {
+        return Flux.usingWhen(acquire(),
+                permit -> call,
+                permit -> Mono.fromRunnable(() -> release(permit, false, false)),
+                (permit, ex) -> Mono.fromRunnable(() -> release(permit, ClientResilience.isServiceFailure(ex), false)),
+                permit -> Mono.fromRunnable(() -> release(permit, false, false)));
+    }
+
+    private Mono<Long> acquire() {
+        return Mono.<Long>create(sink -> {
+                    boolean granted = false;
+                    Waiter waiter = null;
+                    synchronized (this) {
+                        if (inFlight < (int) limit) {
+                            inFlight++;
+                            granted = true;
+                        } else if (queue.size() < settings.maxQueueSize()) {
+                            waiter = new Waiter(sink);
+                            queue.add(waiter);
+                        }
+                    }
+                    if (granted) {
+                        sink.success(System.nanoTime());
+                    } else if (waiter == null) {
+                        reject(sink);
+                    } else {
+                        Waiter queued = waiter;
+                        queued.expiry = Schedulers.parallel().schedule(() -> {
+                            if (queued.leaveQueue()) {
+                                reject(sink);
+                            }
+                        }, settings.maxQueueWait().toNanos(), TimeUnit.NANOSECONDS);
+                        sink.onCancel(queued::leaveQueue);
+                    }
+                })
+                //a slot granted to a caller that had just given up
+                .doOnDiscard(Long.class, start -> {
+                    synchronized (this) {
+                        inFlight--;
+                    }
+                    grantWaiting();
+                });
+    }
+
+    private void reject(MonoSink<Long> sink) {
+        rejections.increment();
+        sink.error(new ServiceUnavailableException(client, "concurrency limit reached"));
+    }
+
+    private void release(long start, boolean dropped, boolean roundTrip) {
+        long rtt = System.nanoTime() - start;
+        synchronized (this) {
+            inFlight--;
+            samplesSinceDecrease++;
+            if (dropped) {
+                decrease();
+            } else if (roundTrip) {
+                sample(rtt);
+            }
+        }
+        grantWaiting();
+    }
+
+    //guarded by this
+    private void sample(long rtt) {
+        windowMinRtt = Math.min(windowMinRtt, rtt);
+        baselineRtt = Math.min(baselineRtt, rtt);
+        if (++windowSamples == BASELINE_WINDOW) {
+            baselineRtt = windowMinRtt;
+            windowMinRtt = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+        smoothedRtt = smoothedRtt == 0 ? rtt : smoothedRtt + SMOOTHING * (rtt - smoothedRtt);
+
+        if (smoothedRtt > settings.rttTolerance() * baselineRtt) {
+            decrease();
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(settings.maxLimit(), limit + 1 / limit);
+        }
+    }
+
+    //guarded by this
+    private void decrease() {
+        if (samplesSinceDecrease >= limit) {
+            limit = Math.max(settings.minLimit(), limit * settings.backoffRatio());
+            samplesSinceDecrease = 0;
+        }
+    }
+
+    private void grantWaiting() {
+        while (true) {
+            Waiter waiter;
+            synchronized (this) {
+                if (inFlight >= (int) limit || queue.isEmpty()) {
+                    return;
+                }
+                waiter = queue.poll();
+                inFlight++;
+            }
+            if (waiter.done.compareAndSet(false, true)) {
+                waiter.expiry.dispose();
+                waiter.sink.success(System.nanoTime());
+            } else {
+                //timed out or cancelled while being granted, the slot goes to the next one
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    private final class Waiter {
+
+        private final MonoSink<Long> sink;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile Disposable expiry = () -> {};
+
+        private Waiter(MonoSink<Long> sink) {
+            this.sink = sink;
+        }
+
+        //false when it already got a slot or left
+        private boolean leaveQueue() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            synchronized (AdaptiveConcurrencyLimiter.this) {
+                queue.remove(this);
+            }
+            return true;
+        }
+    }
+}
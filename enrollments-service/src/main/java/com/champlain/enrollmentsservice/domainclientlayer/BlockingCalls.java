@@ -0,0 +1,96 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/*
+   The blocking calls a client makes to a downstream service (RestTemplate), kept off the event loop.
+
+   offload  runs the call on a scheduler of its own, at most maxThreads calls at once and maxQueuedPerThread
+            waiting per thread, the others end as a ServiceUnavailableException (503). Its own threads, so blocking
+            calls piling up can't starve the boundedElastic scheduler the rest of the service shares.
+   guard    runs the call where it is, and when that's a non-blocking thread (Reactor Netty's event loop,
+            Schedulers.parallel) times how long it held it up: a call site that skipped offload.
+
+   enrollments.blocking.calls               timer tagged by client and operation, the offloaded calls
+   enrollments.blocking.guard.violations    timer tagged by client and operation, the guarded calls that ran on a
+                                            non-blocking thread anyway. Zero as long as every call site offloads, it
+                                            doesn't see the event loop stalled by anything else.
+   enrollments.client.rejections            counter tagged by client and reason blocking-queue-full
+ */
+public class BlockingCalls implements AutoCloseable {
+
+    public static final String CALLS = "enrollments.blocking.calls";
+    public static final String GUARD_VIOLATIONS = "enrollments.blocking.guard.violations";
+
+    public record Settings(int maxThreads, int maxQueuedPerThread) {
+    }
+
+    private final String client;
+    private final MeterRegistry registry;
+    private final Scheduler scheduler;
+    private final Counter rejections;
+
+    public BlockingCalls(String client, Settings settings, MeterRegistry registry) {
+        this.client = client;
+        this.registry = registry;
+        this.scheduler = Schedulers.newBoundedElastic(settings.maxThreads(), settings.maxQueuedPerThread(),
+                "blocking-calls-" + client);
+        this.rejections = Counter.builder(ClientResilience.REJECTIONS)
+                .tags(Tags.of("client", client, "reason", "blocking-queue-full"))
+                .register(registry);
+    }
+
+    //the same offload and guard for callers that don't publish metrics (the benchmarks), an empty composite registry keeps no meters
+    public static BlockingCalls unmeasured(String client) {
+        return new BlockingCalls(client,
+                new Settings(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE),
+                new CompositeMeterRegistry());
+    }
+
+    public <T> Mono<T> offload(String operation, Callable<T> call) {
+        Timer timer = timer(CALLS, operation);
+        return Mono.fromCallable(() -> {
+                    Timer.Sample sample = Timer.start(registry);
+                    try {
+                        return call.call();
+                    } finally {
+                        sample.stop(timer);
+                    }
+                })
+                .subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class, ex -> {
+                    rejections.increment();
+                    return new ServiceUnavailableException(client, "too many blocking calls queued", ex);
+                });
+    }
+
+    public <T> T guard(String operation, Supplier<T> call) {
+        if (!Schedulers.isInNonBlockingThread()) {
+            return call.get();
+        }
+        return timer(GUARD_VIOLATIONS, operation).record(call);
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+    }
+
+    private Timer timer(String name, String operation) {
+        return Timer.builder(name)
+                .tags(Tags.of("client", client, "operation", operation))
+                .register(registry);
+    }
+}
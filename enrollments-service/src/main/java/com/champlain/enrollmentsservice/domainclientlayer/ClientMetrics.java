@@ -0,0 +1,106 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+   Meters for the calls a service client makes to a downstream service, all tagged by client and operation:
+
+   enrollments.client.requests           timer (percentile histogram), also tagged by outcome SUCCESS, ERROR or CANCELLED
+   enrollments.client.requests.inflight  gauge of the calls subscribed to but not terminated yet
+   enrollments.client.errors             counter, also tagged by exception (simple class name)
+
+   A call is timed from subscription to its terminal signal, so a Flux is timed until its last element.
+ */
+public class ClientMetrics {
+
+    public static final String REQUESTS = "enrollments.client.requests";
+    public static final String IN_FLIGHT = "enrollments.client.requests.inflight";
+    public static final String ERRORS = "enrollments.client.errors";
+
+    private final MeterRegistry registry;
+    private final String client;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public ClientMetrics(MeterRegistry registry, String client) {
+        this.registry = registry;
+        this.client = client;
+    }
+
+    public <T> Mono<T> timed(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            CallRecorder recorder = start(operation);
+            return call
+                    .doOnError(recorder.error::set)
+                    .doFinally(recorder::stop);
+        });
+    }
+
+    public <T> Flux<T> timed(String operation, Flux<T> call) {
+        return Flux.defer(() -> {
+            CallRecorder recorder = start(operation);
+            return call
+                    .doOnError(recorder.error::set)
+                    .doFinally(recorder::stop);
+        });
+    }
+
+    private CallRecorder start(String operation) {
+        AtomicInteger calls = inFlight.computeIfAbsent(operation, op -> {
+            AtomicInteger gauge = new AtomicInteger();
+            Gauge.builder(IN_FLIGHT, gauge, AtomicInteger::get)
+                    .tags(tags(op))
+                    .register(registry);
+            return gauge;
+        });
+        calls.incrementAndGet();
+        return new CallRecorder(operation, calls, Timer.start(registry));
+    }
+
+    private Tags tags(String operation) {
+        return Tags.of("client", client, "operation", operation);
+    }
+
+    private final class CallRecorder {
+
+        private final String operation;
+        private final AtomicInteger calls;
+        private final Timer.Sample sample;
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private CallRecorder(String operation, AtomicInteger calls, Timer.Sample sample) {
+            this.operation = operation;
+            this.calls = calls;
+            this.sample = sample;
+        }
+
+        private void stop(SignalType signal) {
+            calls.decrementAndGet();
+
+            String outcome = signal == SignalType.CANCEL ? "CANCELLED" : error.get() != null ? "ERROR" : "SUCCESS";
+            sample.stop(Timer.builder(REQUESTS)
+                    .tags(tags(operation).and("outcome", outcome))
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry));
+
+            if (error.get() != null) {
+                Counter.builder(ERRORS)
+                        .tags(tags(operation).and("exception", error.get().getClass().getSimpleName()))
+                        .register(registry)
+                        .increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.DeadlineExceededException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.rsocket.exceptions.ConnectionCloseException;
+import io.rsocket.exceptions.ConnectionErrorException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/*
+   Guards the calls a service client makes to one downstream service, so a slow or failing service gets fewer calls
+   instead of piling them up and passing its latency on to every caller of enrollments-service:
+
+   limiter          optional, an AdaptiveConcurrencyLimiter in front of the bulkhead, calls over its limit wait in its queue
+   bulkhead         at most maxConcurrentCalls calls in flight, the next ones are rejected at once (no queue),
+                    fan-outs keep under it with fanOutConcurrency
+   timeout          per attempt, for a Flux it's the longest wait for the next element
+   circuit breaker  opens once failureRateThreshold % of the last slidingWindowSize calls failed, then rejects every call
+                    for waitDurationInOpenState before letting a few through to probe the service
+   retry            idempotent calls only (GETs), at most maxRetries more attempts after exponential backoff with jitter
+
+   Only the service's own failures count: timeouts, connection errors and 5xx. A 404 or 422 is an answer, and a call
+   ended by the request's deadline (see RequestDeadline), 504 from the service included, is neither.
+   Rejected and timed out calls end as a ServiceUnavailableException (503).
+
+   enrollments.client.circuitbreaker.state  gauge tagged by client, 0 closed, 1 open, 2 half open
+   enrollments.client.rejections            counter tagged by client and reason (circuit-open, bulkhead-full)
+ */
+public class ClientResilience {
+
+    public static final String CIRCUIT_BREAKER_STATE = "enrollments.client.circuitbreaker.state";
+    public static final String REJECTIONS = "enrollments.client.rejections";
+
+    public record Settings(Duration timeout,
+                           int maxConcurrentCalls,
+                           float failureRateThreshold,
+                           int slidingWindowSize,
+                           int minimumNumberOfCalls,
+                           Duration waitDurationInOpenState,
+                           int maxRetries,
+                           Duration minBackoff,
+                           Duration maxBackoff) {
+    }
+
+    private final String client;
+    private final Settings settings;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+
+    public ClientResilience(String client, Settings settings, MeterRegistry registry) {
+        this(client, settings, null, registry);
+    }
+
+    //limiter may be null
+    public ClientResilience(String client, Settings settings, AdaptiveConcurrencyLimiter limiter, MeterRegistry registry) {
+        this.client = client;
+        this.settings = settings;
+        this.circuitBreaker = CircuitBreaker.of(client, CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.failureRateThreshold())
+                .slidingWindowSize(settings.slidingWindowSize())
+                .minimumNumberOfCalls(settings.minimumNumberOfCalls())
+                .waitDurationInOpenState(settings.waitDurationInOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordException(ClientResilience::isServiceFailure)
+                //our own deadline passing says nothing about the service, it's neither a failure nor a success
+                .ignoreExceptions(DeadlineExceededException.class)
+                .build());
+        this.bulkhead = Bulkhead.of(client, BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.maxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        this.limiter = limiter;
+
+        Gauge.builder(CIRCUIT_BREAKER_STATE, circuitBreaker, breaker -> breaker.getState().getOrder())
+                .tags(Tags.of("client", client))
+                .register(registry);
+        this.circuitOpenRejections = rejections(registry, "circuit-open");
+        this.bulkheadFullRejections = rejections(registry, "bulkhead-full");
+    }
+
+    //calls go through unchanged, for clients built without resilience settings (tests, benchmarks)
+    public static ClientResilience disabled() {
+        return new ClientResilience();
+    }
+
+    private ClientResilience() {
+        this.client = null;
+        this.settings = null;
+        this.circuitBreaker = null;
+        this.bulkhead = null;
+        this.limiter = null;
+        this.circuitOpenRejections = null;
+        this.bulkheadFullRejections = null;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /*
+       The flatMap concurrency for a fan-out of calls through this client, read when the fan-out is subscribed:
+       - the bulkhead has no queue, so a fan-out with more calls in flight than maxConcurrentCalls (flatMap's
+         default is 256) gets the extra ones rejected
+       - the limiter does queue, but for at most maxQueueWait. With its initial limit of 20 and 1s of queue wait,
+         a fan-out of 256 calls has 236 of them queued, the last ones wait ~12 round trips and are rejected as soon
+         as a round trip takes more than ~85ms. Kept at the current limit, a call only waits for one round trip.
+         The limit grows while the fan-out runs (every slot is in use), the next fan-out gets the larger one.
+     */
+    public int fanOutConcurrency(int preferred) {
+        if (settings == null) {
+            return preferred;
+        }
+        int concurrency = Math.min(preferred, settings.maxConcurrentCalls());
+        return limiter != null ? Math.max(1, Math.min(concurrency, limiter.getLimit())) : concurrency;
+    }
+
+    //for GETs, the only calls that may be sent again
+    public <T> Mono<T> idempotent(Mono<T> call) {
+        if (circuitBreaker == null) {
+            return call;
+        }
+        return guard(call)
+                .retryWhen(retry())
+                .onErrorResume(this::isUnavailable, this::unavailable);
+    }
+
+    //not retried, elements already received can't be taken back (and POST /batch is not a GET)
+    public <T> Flux<T> stream(Flux<T> call) {
+        if (circuitBreaker == null) {
+            return call;
+        }
+        Flux<T> attempt = call
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .timeout(settings.timeout());
+        return (limiter != null ? limiter.limit(attempt) : attempt)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorResume(this::isUnavailable, this::unavailable);
+    }
+
+    /*
+       one attempt: the bulkhead inside the timeout, so a timed out call gives its permit back,
+       and the limiter outside of it, the time spent in its queue isn't part of the timeout
+     */
+    private <T> Mono<T> guard(Mono<T> call) {
+        Mono<T> attempt = call
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .timeout(settings.timeout());
+        return (limiter != null ? limiter.limit(attempt) : attempt)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private Retry retry() {
+        return Retry.backoff(settings.maxRetries(), settings.minBackoff())
+                .maxBackoff(settings.maxBackoff())
+                .jitter(0.5)
+                .filter(ClientResilience::isServiceFailure)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private boolean isUnavailable(Throwable ex) {
+        return ex instanceof CallNotPermittedException
+                || ex instanceof BulkheadFullException
+                || ex instanceof TimeoutException;
+    }
+
+    private <T> Mono<T> unavailable(Throwable ex) {
+        if (ex instanceof CallNotPermittedException) {
+            circuitOpenRejections.increment();
+            return ApplicationExceptions.serviceUnavailable(client, "circuit breaker open");
+        }
+        if (ex instanceof BulkheadFullException) {
+            bulkheadFullRejections.increment();
+            return ApplicationExceptions.serviceUnavailable(client, "too many calls in flight");
+        }
+        return ApplicationExceptions.serviceUnavailable(client, "no response within " + settings.timeout().toMillis() + "ms");
+    }
+
+    private Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder(REJECTIONS)
+                .tags(Tags.of("client", client, "reason", reason))
+                .register(registry);
+    }
+
+    static boolean isServiceFailure(Throwable ex) {
+        if (ex instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return ex instanceof TimeoutException
+                || ex instanceof WebClientRequestException
+                || ex instanceof ConnectionErrorException
+                || ex instanceof ConnectionCloseException
+                || ex instanceof IOException;
+    }
+}
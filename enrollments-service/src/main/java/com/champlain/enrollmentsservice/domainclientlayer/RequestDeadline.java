@@ -0,0 +1,109 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+   The time left before whoever sent a request gives up on it, carried from service to service in the
+   X-Request-Timeout header as milliseconds left, so the hosts' clocks don't have to agree.
+
+   The deadline of the request being handled lives in the Reactor context (see RequestDeadlineFilter). Every call to
+   students-service and courses-service made within it sends what's left, isn't sent once nothing is left and is
+   cancelled when the deadline passes, all ending as a DeadlineExceededException (504). So does a 504 answered to a
+   call that sent a deadline: the service gave up on our deadline, it didn't fail, and ClientResilience neither
+   retries it nor counts it against the service's circuit breaker.
+ */
+public final class RequestDeadline {
+
+    public static final String HEADER = "X-Request-Timeout";
+
+    //System.nanoTime() of the deadline
+    private static final String KEY = "enrollments.request.deadline";
+
+    private RequestDeadline() {
+    }
+
+    //for contextWrite, a deadline timeout from now
+    public static Function<Context, Context> in(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return context -> context.put(KEY, deadline);
+    }
+
+    //for contextWrite, a deadline timeout from now unless the request already has one
+    public static Function<Context, Context> inUnlessSet(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return context -> context.hasKey(KEY) ? context : context.put(KEY, deadline);
+    }
+
+    //null when the header is missing or not a number
+    public static Duration parse(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis(Long.parseLong(header.trim()));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    //WebClient filter, see ServiceClientTransport
+    public static ExchangeFilterFunction propagation() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            if (!context.hasKey(KEY)) {
+                return next.exchange(request);
+            }
+            long left = context.<Long>get(KEY) - System.nanoTime();
+            if (left <= 0) {
+                return ApplicationExceptions.deadlineExceeded();
+            }
+            ClientRequest withTimeout = ClientRequest.from(request)
+                    .header(HEADER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toMillis(left))))
+                    .build();
+            return next.exchange(withTimeout)
+                    .flatMap(response -> response.statusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value()
+                            ? response.releaseBody().then(ApplicationExceptions.<ClientResponse>deadlineExceeded())
+                            : Mono.just(response))
+                    .timeout(Duration.ofNanos(left), ApplicationExceptions.deadlineExceeded());
+        });
+    }
+
+    //for calls that don't go through a WebClient (RSocket), only cancelled at the deadline
+    public static <T> Mono<T> limit(Mono<T> call) {
+        return Mono.deferContextual(context -> {
+            if (!context.hasKey(KEY)) {
+                return call;
+            }
+            long left = context.<Long>get(KEY) - System.nanoTime();
+            return left <= 0
+                    ? ApplicationExceptions.deadlineExceeded()
+                    : call.timeout(Duration.ofNanos(left), ApplicationExceptions.deadlineExceeded());
+        });
+    }
+
+    //the deadline bounds the whole stream, not the wait for each element
+    public static <T> Flux<T> limit(Flux<T> call) {
+        return Flux.deferContextual(context -> {
+            if (!context.hasKey(KEY)) {
+                return call;
+            }
+            long deadline = context.get(KEY);
+            return call.timeout(untilDeadline(deadline), element -> untilDeadline(deadline),
+                    ApplicationExceptions.<T>deadlineExceeded().flux());
+        });
+    }
+
+    private static Mono<Long> untilDeadline(long deadline) {
+        return Mono.delay(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+    }
+}
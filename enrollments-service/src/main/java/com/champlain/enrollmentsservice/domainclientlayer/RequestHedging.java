@@ -0,0 +1,137 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+   Hedged requests: when a call hasn't answered after the delay, the same call is sent a second time and whichever
+   answers first wins, the other one is cancelled. Only for idempotent calls.
+
+   delay   the percentile (e.g. 0.95) of the latencies of the last windowSize attempts, at least minDelay,
+           recomputed every RECOMPUTE_EVERY attempts. No hedging until the first RECOMPUTE_EVERY attempts answered.
+   budget  every call earns budget hedges (e.g. 0.05), a hedge spends 1, so hedges add at most budget * 100 % of the
+           calls on top of them, with bursts of MAX_BURST hedges. A call finding no hedge to spend just waits.
+
+   enrollments.client.hedges      counter tagged by client and result (sent, won, budget-exhausted)
+   enrollments.client.hedge.delay gauge tagged by client, the current delay in ms
+ */
+public class RequestHedging {
+
+    public static final String HEDGES = "enrollments.client.hedges";
+    public static final String HEDGE_DELAY = "enrollments.client.hedge.delay";
+
+    private static final int RECOMPUTE_EVERY = 50;
+    private static final int MAX_BURST = 10;
+    //the budget is kept in thousandths of a hedge
+    private static final long HEDGE_COST = 1000;
+    private static final long NO_HEDGING = Long.MAX_VALUE;
+
+    public record Settings(double percentile, Duration minDelay, double budget, int windowSize) {
+    }
+
+    private final Settings settings;
+    private final long earnedPerCall;
+    private final AtomicLong budget = new AtomicLong();
+
+    //ring of the latest attempt latencies in ns, guarded by this
+    private final long[] latencies;
+    private int nextLatency;
+    private long attempts;
+
+    private volatile long delayNanos = NO_HEDGING;
+
+    private final Counter sent;
+    private final Counter won;
+    private final Counter budgetExhausted;
+
+    public RequestHedging(String client, Settings settings, MeterRegistry registry) {
+        this.settings = settings;
+        this.earnedPerCall = Math.round(settings.budget() * HEDGE_COST);
+        this.latencies = new long[settings.windowSize()];
+
+        Gauge.builder(HEDGE_DELAY, this, hedging -> hedging.delayNanos == NO_HEDGING
+                        ? Double.NaN
+                        : hedging.delayNanos / (double) TimeUnit.MILLISECONDS.toNanos(1))
+                .tags(Tags.of("client", client))
+                .register(registry);
+        this.sent = hedges(registry, client, "sent");
+        this.won = hedges(registry, client, "won");
+        this.budgetExhausted = hedges(registry, client, "budget-exhausted");
+    }
+
+    //call is subscribed to once, then a second time if it hasn't answered within the delay
+    public <T> Mono<T> hedge(Mono<T> call) {
+        return Mono.defer(() -> {
+            earn();
+            long delay = delayNanos;
+            Mono<T> primary = recordLatency(call);
+            if (delay == NO_HEDGING) {
+                return primary;
+            }
+            Mono<T> hedged = Mono.delay(Duration.ofNanos(delay))
+                    .flatMap(tick -> {
+                        if (!spend()) {
+                            budgetExhausted.increment();
+                            return Mono.<T>never();
+                        }
+                        sent.increment();
+                        return recordLatency(call).doOnNext(value -> won.increment());
+                    });
+            //the first to answer, a value, an error or empty, cancels the other
+            return Mono.firstWithSignal(primary, hedged);
+        });
+    }
+
+    public Duration getDelay() {
+        long delay = delayNanos;
+        return delay == NO_HEDGING ? null : Duration.ofNanos(delay);
+    }
+
+    private <T> Mono<T> recordLatency(Mono<T> attempt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.doOnNext(value -> record(System.nanoTime() - start));
+        });
+    }
+
+    private synchronized void record(long nanos) {
+        latencies[nextLatency] = nanos;
+        nextLatency = (nextLatency + 1) % latencies.length;
+        attempts++;
+        if (attempts % RECOMPUTE_EVERY == 0) {
+            long[] window = Arrays.copyOf(latencies, (int) Math.min(attempts, latencies.length));
+            Arrays.sort(window);
+            int index = (int) Math.ceil(settings.percentile() * window.length) - 1;
+            delayNanos = Math.max(settings.minDelay().toNanos(), window[Math.max(0, index)]);
+        }
+    }
+
+    private void earn() {
+        budget.updateAndGet(credits -> Math.min(credits + earnedPerCall, MAX_BURST * HEDGE_COST));
+    }
+
+    private boolean spend() {
+        long credits;
+        do {
+            credits = budget.get();
+            if (credits < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(credits, credits - HEDGE_COST));
+        return true;
+    }
+
+    private static Counter hedges(MeterRegistry registry, String client, String result) {
+        return Counter.builder(HEDGES)
+                .tags(Tags.of("client", client, "result", result))
+                .register(registry);
+    }
+}
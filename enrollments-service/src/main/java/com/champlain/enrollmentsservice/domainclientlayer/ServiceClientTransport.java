@@ -0,0 +1,57 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import io.netty.channel.ChannelHandler;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/*
+   How the service clients talk to students-service and courses-service:
+
+   http2        HTTP/2 cleartext with prior knowledge, every call to a service is a stream on one shared connection
+                instead of one pooled HTTP/1.1 connection per call in flight. Both services accept h2c next to HTTP/1.1.
+   compression  sends Accept-Encoding: gzip, the services only compress responses over their min-response-size,
+                so in practice the list and batch responses.
+   codec        smile asks for Jackson's binary JSON (application/x-jackson-smile) and falls back to JSON,
+                error responses and the text/event-stream endpoints are unaffected. Request bodies stay JSON.
+
+   Whatever the transport, every call sends the time its request has left, see RequestDeadline.
+ */
+public record ServiceClientTransport(boolean http2, boolean compression, Codec codec) {
+
+    public enum Codec {
+        JSON(List.of(MediaType.APPLICATION_JSON)),
+        SMILE(List.of(MediaType.parseMediaType("application/x-jackson-smile"), MediaType.APPLICATION_JSON));
+
+        private final List<MediaType> accept;
+
+        Codec(List<MediaType> accept) {
+            this.accept = accept;
+        }
+    }
+
+    public WebClient.Builder webClientBuilder(String baseUrl) {
+        return webClientBuilder(baseUrl, null);
+    }
+
+    //connectionHandler, when not null, is added first on every connection (e.g. to count the bytes on the wire)
+    public WebClient.Builder webClientBuilder(String baseUrl, ChannelHandler connectionHandler) {
+        HttpClient httpClient = HttpClient.create()
+                .protocol(http2 ? HttpProtocol.H2C : HttpProtocol.HTTP11)
+                .compress(compression);
+        if (connectionHandler != null) {
+            httpClient = httpClient.doOnChannelInit((observer, channel, remoteAddress) ->
+                    channel.pipeline().addFirst(connectionHandler));
+        }
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(RequestDeadline.propagation())
+                //a call setting its own Accept (the event streams) keeps it
+                .defaultHeaders(headers -> headers.setAccept(codec.accept));
+    }
+}
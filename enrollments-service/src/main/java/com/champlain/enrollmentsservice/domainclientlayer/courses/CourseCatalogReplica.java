@@ -0,0 +1,145 @@
+package com.champlain.enrollmentsservice.domainclientlayer.courses;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/*
+   In-memory replica of the whole course catalog (about 1000 rows), so course lookups become local reads.
+
+   The replica subscribes to courses-service's change feed and, once the feed is live (its first event, courses-service
+   sends a heartbeat right away), bootstraps from the full course list. A change made between the two is then in
+   the feed, and the changes received while the list is read win over it.
+   Readers get an immutable map that is swapped on every change (copy-on-write), so reads never lock.
+   The replica only answers while it is bootstrapped and has heard from the feed (change or heartbeat)
+   within maxStaleness; otherwise callers fall back to the HTTP lookup.
+ */
+@Slf4j
+public class CourseCatalogReplica {
+
+    private final Supplier<Flux<CourseResponseModel>> snapshot;
+    private final Supplier<Flux<CourseChangeEvent>> changes;
+    private final Duration maxStaleness;
+
+    private volatile Map<String, CourseResponseModel> courses = Map.of();
+    private volatile boolean bootstrapped = false;
+    private volatile long lastSyncNanos = 0;
+
+    //courses changed by the feed while the snapshot was being read, the feed is newer for those
+    private final Set<String> changedDuringBootstrap = new HashSet<>();
+
+    private Disposable replication;
+
+    public CourseCatalogReplica(Supplier<Flux<CourseResponseModel>> snapshot,
+                                Supplier<Flux<CourseChangeEvent>> changes,
+                                Duration maxStaleness) {
+        this.snapshot = snapshot;
+        this.changes = changes;
+        this.maxStaleness = maxStaleness;
+    }
+
+    public synchronized void start() {
+        if (replication != null) {
+            return;
+        }
+        replication = Mono.defer(this::replicate)
+                .doOnError(ex -> log.warn("Course catalog replication failed: {}", ex.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .repeatWhen(completed -> completed.delayElements(Duration.ofSeconds(1)))
+                .subscribe();
+    }
+
+    public synchronized void stop() {
+        if (replication != null) {
+            replication.dispose();
+            replication = null;
+        }
+        bootstrapped = false;
+    }
+
+    public boolean isReady() {
+        return bootstrapped && System.nanoTime() - lastSyncNanos <= maxStaleness.toNanos();
+    }
+
+    //empty when the course isn't replicated yet or the replica isn't ready
+    public Optional<CourseResponseModel> find(String courseId) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(courses.get(courseId));
+    }
+
+    public int size() {
+        return courses.size();
+    }
+
+    private Mono<Void> replicate() {
+        synchronized (this) {
+            bootstrapped = false;
+            changedDuringBootstrap.clear();
+        }
+        Sinks.Empty<Void> live = Sinks.empty();
+        return Mono.when(
+                        changes.get()
+                                .doOnNext(event -> {
+                                    apply(event);
+                                    live.tryEmitEmpty();
+                                })
+                                //a feed ending without a single event still gets its snapshot, then starts over
+                                .doOnComplete(live::tryEmitEmpty)
+                                .then(),
+                        live.asMono().then(snapshot.get().collectList()).doOnNext(this::bootstrap))
+                .doFinally(signal -> bootstrapped = false);
+    }
+
+    synchronized void apply(CourseChangeEvent event) {
+        lastSyncNanos = System.nanoTime();
+        if (event.type() == CourseChangeEvent.ChangeType.HEARTBEAT) {
+            return;
+        }
+
+        Map<String, CourseResponseModel> copy = new HashMap<>(courses);
+        if (event.type() == CourseChangeEvent.ChangeType.DELETED) {
+            copy.remove(event.courseId());
+        } else {
+            copy.put(event.courseId(), event.course());
+        }
+        courses = Map.copyOf(copy);
+
+        if (!bootstrapped) {
+            changedDuringBootstrap.add(event.courseId());
+        }
+    }
+
+    synchronized void bootstrap(List<CourseResponseModel> allCourses) {
+        Map<String, CourseResponseModel> replica = new HashMap<>();
+        allCourses.forEach(course -> replica.put(course.courseId(), course));
+
+        changedDuringBootstrap.forEach(courseId -> {
+            CourseResponseModel fromFeed = courses.get(courseId);
+            if (fromFeed == null) {
+                replica.remove(courseId);
+            } else {
+                replica.put(courseId, fromFeed);
+            }
+        });
+        changedDuringBootstrap.clear();
+
+        courses = Map.copyOf(replica);
+        lastSyncNanos = System.nanoTime();
+        bootstrapped = true;
+        log.info("Course catalog replica bootstrapped with {} courses", replica.size());
+    }
+}
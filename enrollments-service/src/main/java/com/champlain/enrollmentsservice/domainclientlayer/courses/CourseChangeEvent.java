@@ -0,0 +1,14 @@
+package com.champlain.enrollmentsservice.domainclientlayer.courses;
+
+//one entry of courses-service's change feed, course is null for DELETED and HEARTBEAT
+public record CourseChangeEvent(ChangeType type,
+                                String courseId,
+                                CourseResponseModel course) {
+
+    public enum ChangeType {
+        ADDED,
+        UPDATED,
+        DELETED,
+        HEARTBEAT
+    }
+}
@@ -1,29 +1,129 @@
 package com.champlain.enrollmentsservice.domainclientlayer.courses;
 
+import com.champlain.enrollmentsservice.domainclientlayer.ClientMetrics;
+import com.champlain.enrollmentsservice.domainclientlayer.ClientResilience;
 import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
 import org.springframework.web.reactive.function.client.WebClientResponseException.UnprocessableEntity;
 import org.springframework.web.reactive.function.client.WebClientResponseException.NotFound;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 @Slf4j
 public class CourseServiceClient {
 
+    private static final long KNOWN_COURSES_MAXIMUM_SIZE = 10_000;
+
     private final WebClient webClient;
 
-    public CourseServiceClient(WebClient webClient) {
+    //timings, in-flight calls and errors of every call to courses-service
+    private final ClientMetrics metrics;
+
+    //bulkhead, timeout, circuit breaker and retries of GETs around the calls to courses-service, except the change feed
+    private final ClientResilience resilience;
+
+    //local replica of the catalog, only used once started (see CourseCatalogReplicator)
+    private final CourseCatalogReplica catalog;
+
+    /*
+       Last representation of each course fetched one by one, with its ETag. The next fetch sends If-None-Match,
+       and a 304 reuses this copy instead of downloading and parsing the course again.
+       Bounded: an evicted course is simply fetched in full the next time.
+     */
+    private final Cache<String, KnownCourse> knownCourses = Caffeine.newBuilder()
+            .maximumSize(KNOWN_COURSES_MAXIMUM_SIZE)
+            .build();
+
+    private record KnownCourse(String eTag, CourseResponseModel course) {
+    }
+
+    //every constructor takes the ClientMetrics, so no caller ends up publishing its metrics nowhere
+    public CourseServiceClient(WebClient webClient, ClientMetrics metrics) {
+        this(webClient, Duration.ofSeconds(30), metrics);
+    }
+
+    public CourseServiceClient(WebClient webClient, Duration catalogMaxStaleness, ClientMetrics metrics) {
+        this(webClient, catalogMaxStaleness, metrics, ClientResilience.disabled());
+    }
+
+    public CourseServiceClient(WebClient webClient, Duration catalogMaxStaleness, ClientMetrics metrics,
+                               ClientResilience resilience) {
         this.webClient = webClient;
+        this.metrics = metrics;
+        this.resilience = resilience;
+        this.catalog = new CourseCatalogReplica(this::getAllCourses, this::getCourseChanges, catalogMaxStaleness);
     }
 
+    public CourseCatalogReplica getCatalog() {
+        return catalog;
+    }
+
+    //replicated courses are local reads, misses (unknown, invalid or not yet replicated ids) go to courses-service
     public Mono<CourseResponseModel> getCourseByCourseId(String courseId){
+        return catalog.find(courseId)
+                .map(Mono::just)
+                .orElseGet(() -> fetchCourseByCourseId(courseId));
+    }
+
+    public Flux<CourseResponseModel> getAllCourses() {
+        return metrics.timed("getAllCourses", resilience.stream(webClient.get()
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(CourseResponseModel.class)));
+    }
+
+    //not timed, the change feed stays open for as long as the replica runs
+    public Flux<CourseChangeEvent> getCourseChanges() {
         return webClient.get()
-                .uri("/{courseId}", courseId)
+                .uri("/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
                 .retrieve()
-                .bodyToMono(CourseResponseModel.class)
-                .onErrorResume(NotFound.class, ex -> ApplicationExceptions.courseNotFound(courseId))
-                .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidCourseId(courseId));
+                .bodyToFlux(CourseChangeEvent.class);
+    }
+
+    private Mono<CourseResponseModel> fetchCourseByCourseId(String courseId){
+        return Mono.defer(() -> {
+            KnownCourse known = knownCourses.getIfPresent(courseId);
+            return metrics.timed("getCourseByCourseId", resilience.idempotent(webClient.get()
+                    .uri("/{courseId}", courseId)
+                    .headers(headers -> {
+                        if (known != null) {
+                            headers.setIfNoneMatch(known.eTag());
+                        }
+                    })
+                    .exchangeToMono(response -> {
+                        if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && known != null) {
+                            return response.releaseBody().thenReturn(known.course());
+                        }
+                        if (response.statusCode().is2xxSuccessful()) {
+                            String eTag = response.headers().asHttpHeaders().getETag();
+                            return response.bodyToMono(CourseResponseModel.class)
+                                    .doOnNext(course -> remember(courseId, eTag, course));
+                        }
+                        return response.createError();
+                    }))
+                    .onErrorResume(NotFound.class, ex -> {
+                        knownCourses.invalidate(courseId);
+                        return ApplicationExceptions.courseNotFound(courseId);
+                    })
+                    .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidCourseId(courseId)));
+        });
+    }
+
+    private void remember(String courseId, String eTag, CourseResponseModel course) {
+        if (eTag != null) {
+            knownCourses.put(courseId, new KnownCourse(eTag, course));
+        } else {
+            knownCourses.invalidate(courseId);
+        }
     }
 
 
@@ -0,0 +1,75 @@
+package com.champlain.enrollmentsservice.domainclientlayer.students;
+
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+   DataLoader style micro-batcher: individual lookups made within the same window (or until maxBatchSize
+   lookups are waiting) are sent to students-service as one batch call, then each caller gets its own result back.
+ */
+@Slf4j
+public class StudentBatchLoader {
+
+    private record PendingLookup(String studentId, Sinks.One<StudentResponseModel> result) {
+    }
+
+    private final Sinks.Many<PendingLookup> pendingLookups = Sinks.many().unicast().onBackpressureBuffer();
+    private final Function<List<String>, Flux<StudentResponseModel>> batchLookup;
+
+    public StudentBatchLoader(Function<List<String>, Flux<StudentResponseModel>> batchLookup,
+                              int maxBatchSize,
+                              Duration batchWindow) {
+        this.batchLookup = batchLookup;
+
+        pendingLookups.asFlux()
+                .bufferTimeout(maxBatchSize, batchWindow)
+                .flatMap(this::dispatch)
+                .subscribe();
+    }
+
+    public Mono<StudentResponseModel> load(String studentId) {
+        // invalid ids would only come back as missing from the batch, answer them the way the single lookup does
+        if (studentId.length() != 36) {
+            return ApplicationExceptions.invalidStudentId(studentId);
+        }
+        return Mono.defer(() -> {
+            Sinks.One<StudentResponseModel> result = Sinks.one();
+            pendingLookups.emitNext(new PendingLookup(studentId, result),
+                    Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+            return result.asMono();
+        });
+    }
+
+    private Mono<Void> dispatch(List<PendingLookup> batch) {
+        List<String> studentIds = batch.stream()
+                .map(PendingLookup::studentId)
+                .distinct()
+                .toList();
+        log.debug("Dispatching batch of {} lookups for {} distinct studentIds", batch.size(), studentIds.size());
+
+        return batchLookup.apply(studentIds)
+                .collectMap(StudentResponseModel::studentId)
+                .doOnNext(found -> batch.forEach(pending -> complete(pending, found)))
+                .doOnError(ex -> batch.forEach(pending -> pending.result().tryEmitError(ex)))
+                .onErrorResume(ex -> Mono.empty())
+                .then();
+    }
+
+    private void complete(PendingLookup pending, Map<String, StudentResponseModel> found) {
+        StudentResponseModel student = found.get(pending.studentId());
+        if (student == null) {
+            pending.result().tryEmitError(new StudentNotFoundException(pending.studentId()));
+        } else {
+            pending.result().tryEmitValue(student);
+        }
+    }
+}
@@ -1,41 +1,165 @@
 package com.champlain.enrollmentsservice.domainclientlayer.students;
 
+import com.champlain.enrollmentsservice.domainclientlayer.ClientMetrics;
+import com.champlain.enrollmentsservice.domainclientlayer.ClientResilience;
+import com.champlain.enrollmentsservice.domainclientlayer.RequestDeadline;
+import com.champlain.enrollmentsservice.domainclientlayer.RequestHedging;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
 import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.Generated;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.reactive.function.client.WebClientResponseException.UnprocessableEntity;
 import org.springframework.web.reactive.function.client.WebClientResponseException.NotFound;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.IntStream;
 
-import static java.lang.Thread.currentThread;
-
 @Slf4j
 public class StudentServiceClientAsynchronous {
 
+    //students-service answers 422 to a POST /batch of more studentIds than that
+    static final int MAX_BATCH_SIZE = 1000;
+
     private final WebClient webClient;
 
+    //timings, in-flight calls and errors of every call to students-service
+    private final ClientMetrics metrics;
+
+    //bulkhead, timeout, circuit breaker and retries of GETs around every call to students-service
+    private final ClientResilience resilience;
+
+    /*
+       Student names almost never change, so lookups by studentId go through a bounded, TTL based cache.
+       Concurrent misses for the same studentId share one in-flight request, and entries older than
+       refreshAfterWrite are reloaded in the background on their next read (refresh-ahead).
+       Failed lookups (404, 422, ...) are never cached.
+     */
+    private final AsyncLoadingCache<String, StudentResponseModel> studentCache;
+
+    //null when batching is off, every miss is then its own GET /{studentId}
+    private final StudentBatchLoader batchLoader;
+
+    //null when hedging is off, otherwise a lookup by studentId that is slow to answer is sent a second time
+    private final RequestHedging hedging;
+
+    //null when students-service is called over HTTP, otherwise lookups by studentId, batches and streams go over RSocket
+    private final StudentServiceClientRSocket rSocketClient;
+
     private final List<Integer> range = IntStream.rangeClosed(1, 1000)
             .boxed()
             .toList();
 
-    public StudentServiceClientAsynchronous(WebClient webClient) {
+    //every constructor takes the ClientMetrics, so no caller ends up publishing its metrics nowhere
+    public StudentServiceClientAsynchronous(WebClient webClient, ClientMetrics metrics) {
+        this(webClient, 10_000, Duration.ofMinutes(10), Duration.ofMinutes(1), 0, Duration.ZERO, metrics);
+    }
+
+    //batchMaxSize > 1 turns on micro-batching of cache misses through POST /batch, batches are capped at MAX_BATCH_SIZE
+    public StudentServiceClientAsynchronous(WebClient webClient,
+                                            long cacheMaximumSize,
+                                            Duration cacheExpireAfterWrite,
+                                            Duration cacheRefreshAfterWrite,
+                                            int batchMaxSize,
+                                            Duration batchWindow,
+                                            ClientMetrics metrics) {
+        this(webClient, cacheMaximumSize, cacheExpireAfterWrite, cacheRefreshAfterWrite, batchMaxSize, batchWindow,
+                metrics, ClientResilience.disabled(), null, null);
+    }
+
+    public StudentServiceClientAsynchronous(WebClient webClient,
+                                            long cacheMaximumSize,
+                                            Duration cacheExpireAfterWrite,
+                                            Duration cacheRefreshAfterWrite,
+                                            int batchMaxSize,
+                                            Duration batchWindow,
+                                            ClientMetrics metrics,
+                                            ClientResilience resilience,
+                                            RequestHedging hedging,
+                                            StudentServiceClientRSocket rSocketClient) {
         this.webClient = webClient;
+        this.metrics = metrics;
+        this.resilience = resilience;
+        this.hedging = hedging;
+        this.rSocketClient = rSocketClient;
+        this.batchLoader = batchMaxSize > 1
+                ? new StudentBatchLoader(this::getStudentsByStudentIds, Math.min(batchMaxSize, MAX_BATCH_SIZE), batchWindow)
+                : null;
+        this.studentCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheExpireAfterWrite)
+                .refreshAfterWrite(cacheRefreshAfterWrite)
+                .recordStats()
+                .buildAsync((studentId, executor) -> loadStudentByStudentId(studentId).toFuture());
     }
 
     public Mono<StudentResponseModel> getStudentByStudentId(final String studentId) {
-        return this.webClient.get()
-                .uri("/{studentId}", studentId)
-                .retrieve()
-                .bodyToMono(StudentResponseModel.class)
+        // suppressCancel: one caller giving up must not cancel the load other callers are waiting on
+        // the load is shared, so it runs without a deadline (ClientResilience still times it out), and each
+        // caller only waits for it until its own deadline
+        return RequestDeadline.limit(Mono.fromFuture(() -> studentCache.get(studentId), true));
+    }
+
+    public AsyncLoadingCache<String, StudentResponseModel> getStudentCache() {
+        return studentCache;
+    }
+
+    //loads every student into the cache, returns the number of students cached
+    public Mono<Long> warmUpStudentCache() {
+        return getAllStudents()
+                .doOnNext(s -> studentCache.synchronous().put(s.studentId(), s))
+                .count();
+    }
+
+    //one POST /batch for many studentIds, unknown studentIds are left out of the result
+    public Flux<StudentResponseModel> getStudentsByStudentIds(final List<String> studentIds) {
+        if (rSocketClient != null) {
+            return rSocketClient.getStudentsByStudentIds(studentIds);
+        }
+        return metrics.timed("getStudentsByStudentIds", resilience.stream(this.webClient.post()
+                        .uri("/batch")
+                        .bodyValue(studentIds)
+                        .retrieve()
+                        .bodyToFlux(StudentResponseModel.class))
+                .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidInput(
+                        "Invalid batch of " + studentIds.size() + " studentIds, max is " + MAX_BATCH_SIZE))
+                .onErrorResume(StudentServiceClientAsynchronous::isServerError, ex -> ApplicationExceptions.serviceUnavailable(
+                        "students-service", "batch lookup answered " + ((WebClientResponseException) ex).getStatusCode().value())));
+    }
+
+    private static boolean isServerError(Throwable ex) {
+        return ex instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError();
+    }
+
+    private Mono<StudentResponseModel> loadStudentByStudentId(final String studentId) {
+        return batchLoader != null
+                ? batchLoader.load(studentId)
+                : fetchStudentByStudentId(studentId);
+    }
+
+    //a batched miss is not hedged, the batch it's in is shared with other lookups
+    private Mono<StudentResponseModel> fetchStudentByStudentId(final String studentId) {
+        Mono<StudentResponseModel> fetch = rSocketClient != null
+                ? rSocketClient.getStudentByStudentId(studentId)
+                : fetchStudentByStudentIdOverHttp(studentId);
+        return hedging != null ? hedging.hedge(fetch) : fetch;
+    }
+
+    private Mono<StudentResponseModel> fetchStudentByStudentIdOverHttp(final String studentId) {
+        return metrics.timed("getStudentByStudentId", resilience.idempotent(this.webClient.get()
+                        .uri("/{studentId}", studentId)
+                        .retrieve()
+                        .bodyToMono(StudentResponseModel.class))
                 .onErrorResume(NotFound.class, ex -> ApplicationExceptions.studentNotFound(studentId))
-                .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidStudentId(studentId));
+                .onErrorResume(UnprocessableEntity.class, ex -> ApplicationExceptions.invalidStudentId(studentId)));
     }
 
         /*
@@ -51,25 +175,71 @@ public class StudentServiceClientAsynchronous {
 
     @Generated // exclude this from the code coverage
     public Flux<StudentResponseModel> getAllStudents() {
-        return this.webClient
+        if (rSocketClient != null) {
+            return rSocketClient.getAllStudents();
+        }
+        return metrics.timed("getAllStudents", resilience.stream(this.webClient
                 .get()
                 .retrieve()
-                .bodyToFlux(StudentResponseModel.class);
+                .bodyToFlux(StudentResponseModel.class)));
     }
 
     //Gets students by databaseRowId
     @Generated // exclude this from the code coverage
     public Mono<StudentResponseModel> getStudent(int id) {
         //log.debug(String.format("Calling getStudentAsync(%d)", id));
+        if (rSocketClient != null) {
+            return rSocketClient.getStudentByRowId(id);
+        }
 
-
-        return webClient.get()
+        return metrics.timed("getStudentByRowId", resilience.idempotent(webClient.get()
                 .uri("/row/{id}", id)
                 .retrieve()
-                .bodyToMono(StudentResponseModel.class);
+                .bodyToMono(StudentResponseModel.class)));
+
+    }
+
+
+    //Gets the students from databaseRowId "from" to "to", both included, with one call
+    public Flux<StudentResponseModel> getStudentRowRange(int from, int to) {
+        if (rSocketClient != null) {
+            return rSocketClient.getStudentRowRange(from, to);
+        }
+        return metrics.timed("getStudentRowRange", resilience.stream(webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/row/range")
+                        .queryParam("from", from)
+                        .queryParam("to", to)
+                        .build())
+                .retrieve()
+                .bodyToFlux(StudentResponseModel.class)));
+    }
 
+    /*
+       Same students as get1000Students*, but for any count and with the flatMap concurrency (calls in flight)
+       and prefetch (elements requested from each call) made explicit instead of the 256 / 32 defaults.
+       The concurrency is still kept under the bulkhead and the concurrency limit (see ClientResilience.fanOutConcurrency).
+     */
+    @Generated // exclude this from the code coverage
+    public Flux<StudentResponseModel> getStudents(int count, int concurrency, int prefetch) {
+        return Flux.defer(() -> Flux.range(1, count)
+                .flatMap(this::getStudent, resilience.fanOutConcurrency(concurrency), prefetch));
     }
 
+    //one getStudent per rowId, as many in flight as the bulkhead and the concurrency limiter let through at the time
+    private Flux<StudentResponseModel> getStudentsByRowIds(List<Integer> rowIds) {
+        return Flux.defer(() -> Flux.fromIterable(rowIds)
+                .flatMap(this::getStudent, resilience.fanOutConcurrency(Queues.SMALL_BUFFER_SIZE)));
+    }
+
+    //same as getStudents, but with one /row/range call per chunkSize rows instead of one call per row
+    public Flux<StudentResponseModel> getStudentsByRowRange(int count, int chunkSize, int concurrency, int prefetch) {
+        int chunks = (count + chunkSize - 1) / chunkSize;
+        return Flux.defer(() -> Flux.range(0, chunks)
+                .flatMap(chunk -> {
+                    int from = chunk * chunkSize + 1;
+                    return getStudentRowRange(from, Math.min(from + chunkSize - 1, count));
+                }, resilience.fanOutConcurrency(concurrency), prefetch));
+    }
 
     @Generated // exclude this from the code coverage
     public Flux<StudentResponseModel> get1000StudentsAsync() {
@@ -78,6 +248,8 @@ public class StudentServiceClientAsynchronous {
         This reactive operator has a concurrency level of 256 (on one thread) by default,
         meaning it executes at most 256 getUser calls simultaneously.
         This number is configurable via method parameter using an overloaded version of flatMap.
+        Here it's also kept under the bulkhead's maxConcurrentCalls and the concurrency limit (see
+        ClientResilience.fanOutConcurrency), the calls over them would be rejected.
          */
 
         /* Snippet of results from running this method: all are on same io thread
@@ -90,9 +262,8 @@ enrollments-service  | 2024-08-13T19:31:55.520Z  INFO 1 --- [enrollments-service
 
          */
 
-        return Flux.fromIterable(range)
-                .flatMap(this::getStudent)
-                .doOnNext(s -> log.info("Current thread running " + currentThread()));
+        return getStudentsByRowIds(range)
+                .doOnNext(new ThreadLogSampler<>());
     }
 
     @Generated // exclude this from the code coverage
@@ -114,9 +285,8 @@ enrollments-service              | 2024-08-20T16:44:49.503Z  INFO 1 --- [enrollm
 
          */
 
-        return Flux.fromIterable(range)
-                .flatMap(this::getStudent)
-                .doOnNext(s -> log.info("Current thread running " + currentThread()))
+        return getStudentsByRowIds(range)
+                .doOnNext(new ThreadLogSampler<>())
                 .subscribeOn(Schedulers.parallel());
     }
 
@@ -144,9 +314,8 @@ enrollments-service  | 2024-08-13T19:27:24.622Z  INFO 1 --- [enrollments-service
          */
 
 
-        return Flux.fromIterable(range)
-                .flatMap(this::getStudent)
-                .doOnNext(s -> log.info("Current thread running " + currentThread()))
+        return getStudentsByRowIds(range)
+                .doOnNext(new ThreadLogSampler<>())
                 .subscribeOn(Schedulers.boundedElastic());
     }
 }
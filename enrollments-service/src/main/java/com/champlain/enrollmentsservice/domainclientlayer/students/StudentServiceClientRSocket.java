@@ -0,0 +1,78 @@
+package com.champlain.enrollmentsservice.domainclientlayer.students;
+
+import com.champlain.enrollmentsservice.domainclientlayer.ClientMetrics;
+import com.champlain.enrollmentsservice.domainclientlayer.ClientResilience;
+import com.champlain.enrollmentsservice.domainclientlayer.RequestDeadline;
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import io.rsocket.exceptions.InvalidException;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/*
+   The remote calls of StudentServiceClientAsynchronous over RSocket (see students-service's StudentRSocketController)
+   instead of HTTP: every call is a stream on one persistent, multiplexed TCP connection, opened on the first call
+   and reopened on the next call after it drops.
+   The streams are backpressured end to end, the demand of whoever subscribes (e.g. flatMap's prefetch) is sent to
+   students-service as request(n) and it only queries the students that have been asked for.
+   Nothing carries the request's deadline over RSocket, the calls are cancelled when it passes (see RequestDeadline),
+   which students-service sees as a CANCEL frame.
+ */
+public class StudentServiceClientRSocket implements AutoCloseable {
+
+    private final RSocketRequester requester;
+
+    //same operation names as the HTTP calls, so the metrics read the same whatever the transport
+    private final ClientMetrics metrics;
+
+    //the same bulkhead and circuit breaker as the HTTP calls, students-service is one service whatever the transport
+    private final ClientResilience resilience;
+
+    public StudentServiceClientRSocket(RSocketRequester requester, ClientMetrics metrics) {
+        this(requester, metrics, ClientResilience.disabled());
+    }
+
+    public StudentServiceClientRSocket(RSocketRequester requester, ClientMetrics metrics, ClientResilience resilience) {
+        this.requester = requester;
+        this.metrics = metrics;
+        this.resilience = resilience;
+    }
+
+    public Mono<StudentResponseModel> getStudentByStudentId(String studentId) {
+        return metrics.timed("getStudentByStudentId", resilience.idempotent(RequestDeadline.limit(requester.route("students.{studentId}", studentId)
+                        .retrieveMono(StudentResponseModel.class)))
+                .switchIfEmpty(ApplicationExceptions.studentNotFound(studentId))
+                .onErrorResume(InvalidException.class, ex -> ApplicationExceptions.invalidStudentId(studentId)));
+    }
+
+    //unknown studentIds are left out of the result
+    public Flux<StudentResponseModel> getStudentsByStudentIds(List<String> studentIds) {
+        return metrics.timed("getStudentsByStudentIds", resilience.stream(RequestDeadline.limit(requester.route("students.batch")
+                .data(Flux.fromIterable(studentIds), String.class)
+                .retrieveFlux(StudentResponseModel.class))));
+    }
+
+    public Flux<StudentResponseModel> getAllStudents() {
+        return metrics.timed("getAllStudents", resilience.stream(RequestDeadline.limit(requester.route("students")
+                .retrieveFlux(StudentResponseModel.class))));
+    }
+
+    //by databaseRowId, the get1000Students* fan-outs are then 1000 streams on the same connection
+    public Mono<StudentResponseModel> getStudentByRowId(int id) {
+        return metrics.timed("getStudentByRowId", resilience.idempotent(RequestDeadline.limit(requester.route("students.row.{id}", id)
+                .retrieveMono(StudentResponseModel.class))));
+    }
+
+    //from databaseRowId "from" to "to", both included
+    public Flux<StudentResponseModel> getStudentRowRange(int from, int to) {
+        return metrics.timed("getStudentRowRange", resilience.stream(RequestDeadline.limit(requester.route("students.rows.{from}.{to}", from, to)
+                .retrieveFlux(StudentResponseModel.class))));
+    }
+
+    @Override
+    public void close() {
+        requester.dispose();
+    }
+}
@@ -1,5 +1,6 @@
 package com.champlain.enrollmentsservice.domainclientlayer.students;
 
+import com.champlain.enrollmentsservice.domainclientlayer.BlockingCalls;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.client.RestTemplate;
@@ -7,36 +8,43 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.IntStream;
 
-import static java.lang.Thread.currentThread;
-
 @Slf4j
-public class StudentServiceClientSynchronous {
+public class StudentServiceClientSynchronous implements AutoCloseable {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper mapper;
+    //see StudentServiceImpl for where the calls are offloaded
+    private final BlockingCalls blockingCalls;
+
+    //one new virtual thread per call, nothing to size: a blocked virtual thread only parks, it doesn't hold a carrier thread
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     private final List<Integer> range = IntStream.rangeClosed(1, 1000)
             .boxed()
             .toList();
 
-    public StudentServiceClientSynchronous(String baseUrl, RestTemplate restTemplate, ObjectMapper mapper) {
+    public StudentServiceClientSynchronous(String baseUrl, RestTemplate restTemplate, ObjectMapper mapper, BlockingCalls blockingCalls) {
         this.restTemplate = restTemplate;
         this.restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
         this.mapper = mapper;
+        this.blockingCalls = blockingCalls;
     }
 
     public StudentResponseModel getStudentSync(int id) {
 
         //gets student by the database row id
-        return restTemplate.getForObject("/row/" + id, StudentResponseModel.class);
+        return blockingCalls.guard("getStudentByRowId", () -> restTemplate.getForObject("/row/" + id, StudentResponseModel.class));
     }
 
 
     public List<StudentResponseModel> get1000StudentsLoop() {
 
-    /* Snippet of results from this method: all on one thread
+    /* Snippet of results from this method, from before it was offloaded from the event loop: all on one thread
 
 enrollments-service  | 2024-08-13T19:43:57.078Z  INFO 1 --- [enrollments-service] [or-http-epoll-3] c.c.e.d.StudentClientSynchronous         : Current thread running Thread[#36,reactor-http-epoll-3,5,main]
 enrollments-service  | 2024-08-13T19:43:57.081Z  INFO 1 --- [enrollments-service] [or-http-epoll-3] c.c.e.d.StudentClientSynchronous         : Current thread running Thread[#36,reactor-http-epoll-3,5,main]
@@ -47,10 +55,12 @@ enrollments-service  | 2024-08-13T19:43:57.085Z  INFO 1 --- [enrollments-service
 
         List<StudentResponseModel> studentResponseModels = new ArrayList<>();
 
+        ThreadLogSampler<StudentResponseModel> threadLog = new ThreadLogSampler<>();
         for (int i = 1; i < 1001; i++) {
 
-            log.info("Current thread running " + currentThread());
-            studentResponseModels.add(getStudentSync(i));
+            StudentResponseModel student = getStudentSync(i);
+            threadLog.accept(student);
+            studentResponseModels.add(student);
 
         }
 
@@ -59,7 +69,7 @@ enrollments-service  | 2024-08-13T19:43:57.085Z  INFO 1 --- [enrollments-service
 
     public List<StudentResponseModel> get1000StudentsSyncParallel() {
 
-        /* Snippet of results from this method: one http-epoll (io) thread but up to 6 commonPool-worker threads
+        /* Snippet of results from this method, from before it was offloaded from the event loop: one http-epoll (io) thread but up to 6 commonPool-worker threads
 
 enrollments-service  | 2024-08-13T19:46:23.548Z  INFO 1 --- [enrollments-service] [or-http-epoll-2] c.c.e.d.StudentClientSynchronous         : Current thread running Thread[#35,reactor-http-epoll-2,5,main]
 enrollments-service  | 2024-08-13T19:46:23.553Z  INFO 1 --- [enrollments-service] [onPool-worker-2] c.c.e.d.StudentClientSynchronous         : Current thread running Thread[#38,ForkJoinPool.commonPool-worker-2,5,main]
@@ -71,11 +81,32 @@ enrollments-service  | 2024-08-13T19:46:23.562Z  INFO 1 --- [enrollments-service
 
 /*
          */
+        ThreadLogSampler<StudentResponseModel> threadLog = new ThreadLogSampler<>();
         return range.parallelStream()
-                .map(i -> {
-                    log.info("Current thread running " + currentThread());
-                    return getStudentSync(i);
-                })
+                .map(this::getStudentSync)
+                .peek(threadLog)
+                .toList();
+    }
+
+    public CompletableFuture<List<StudentResponseModel>> get1000StudentsSyncVirtual() {
+
+        /*
+           Each blocking RestTemplate call runs on its own virtual thread, so the 1000 calls are all in flight at once
+           while neither the reactor-http-epoll threads nor the ForkJoin common pool are ever blocked.
+           Nothing waits for the calls either: the result completes when the last one does.
+         */
+        List<CompletableFuture<StudentResponseModel>> students = range.stream()
+                .map(i -> CompletableFuture.supplyAsync(() -> getStudentSync(i), virtualThreadExecutor))
                 .toList();
+
+        return CompletableFuture.allOf(students.toArray(CompletableFuture[]::new))
+                .thenApply(done -> students.stream()
+                        .map(CompletableFuture::join)
+                        .toList());
+    }
+
+    @Override
+    public void close() {
+        virtualThreadExecutor.shutdown();
     }
 }
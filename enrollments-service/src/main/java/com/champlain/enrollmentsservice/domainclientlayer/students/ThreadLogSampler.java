@@ -0,0 +1,28 @@
+package com.champlain.enrollmentsservice.domainclientlayer.students;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.lang.Thread.currentThread;
+
+/*
+   Logs the current thread for one student out of every SAMPLE_RATE, at debug level.
+   Logging every student cost more than the work being observed; call timings are in ClientMetrics.
+ */
+@Slf4j
+final class ThreadLogSampler<T> implements Consumer<T> {
+
+    private static final int SAMPLE_RATE = 100;
+
+    private final AtomicLong seen = new AtomicLong();
+
+    @Override
+    public void accept(T student) {
+        long count = seen.incrementAndGet();
+        if (count % SAMPLE_RATE == 0 && log.isDebugEnabled()) {
+            log.debug("Current thread running {} ({} students so far)", currentThread(), count);
+        }
+    }
+}
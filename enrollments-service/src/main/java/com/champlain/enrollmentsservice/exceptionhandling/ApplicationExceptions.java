@@ -1,10 +1,26 @@
 package com.champlain.enrollmentsservice.exceptionhandling;
 
+import com.champlain.enrollmentsservice.dataaccesslayer.Enrollment;
 import com.champlain.enrollmentsservice.exceptionhandling.exceptions.*;
+import org.springframework.http.HttpStatus;
 import reactor.core.publisher.Mono;
 
 public class ApplicationExceptions {
 
+    //errors without a variable part are stackless and immutable, so one instance of each is shared by every request
+    private static final InvalidEnrollmentYearException INVALID_ENROLLMENT_YEAR =
+            new InvalidEnrollmentYearException("Enrollment year must be between 2000 and this year + 1");
+    private static final InvalidEnrollmentRequestException MISSING_STUDENT_ID =
+            new InvalidEnrollmentRequestException("Student Id is required");
+    private static final InvalidEnrollmentRequestException MISSING_COURSE_ID =
+            new InvalidEnrollmentRequestException("Course Id is required");
+    private static final InvalidEnrollmentRequestException MISSING_SEMESTER =
+            new InvalidEnrollmentRequestException("Semester is required");
+    private static final InvalidEnrollmentRequestException SEMESTER_FILTER_WITHOUT_YEAR =
+            new InvalidEnrollmentRequestException("Enrollment year is required when filtering by semester");
+    private static final DeadlineExceededException DEADLINE_EXCEEDED =
+            new DeadlineExceededException("Request deadline exceeded");
+
     public static <T> Mono<T> enrollmentNotFound(String enrollmentId) {
         return Mono.error(new EnrollmentNotFoundException(enrollmentId));
     }
@@ -30,19 +46,75 @@ public class ApplicationExceptions {
     }
 
     public static <T> Mono<T> invalidEnrollmentYear() {
-        return Mono.error(new InvalidEnrollmentYearException("Enrollment year must be between 2000 and this year + 1"));
+        return Mono.error(INVALID_ENROLLMENT_YEAR);
     }
 
     public static <T> Mono<T> missingStudentId() {
-        return Mono.error(new InvalidEnrollmentRequestException("Student Id is required"));
+        return Mono.error(MISSING_STUDENT_ID);
     }
 
     public static <T> Mono<T> missingCourseId() {
-        return Mono.error(new InvalidEnrollmentRequestException("Course Id is required"));
+        return Mono.error(MISSING_COURSE_ID);
     }
 
     public static <T> Mono<T> missingSemester() {
-        return Mono.error(new InvalidEnrollmentRequestException("Semester is required"));
+        return Mono.error(MISSING_SEMESTER);
+    }
+
+    public static <T> Mono<T> duplicateEnrollment(Enrollment enrollment) {
+        return Mono.error(new DuplicateEnrollmentException(enrollment.getStudentId(), enrollment.getCourseId(),
+                String.valueOf(enrollment.getSemester()), enrollment.getEnrollmentYear()));
+    }
+
+    public static <T> Mono<T> invalidPageToken(String pageToken) {
+        return Mono.error(new InvalidEnrollmentRequestException("Page token " + pageToken + " is invalid"));
+    }
+
+    public static <T> Mono<T> invalidPageSize(int size) {
+        return Mono.error(new InvalidEnrollmentRequestException("Page size must be between 1 and 500, was " + size));
+    }
+
+    public static <T> Mono<T> invalidInput(String message) {
+        return Mono.error(new InvalidInputException(message));
+    }
+
+    public static <T> Mono<T> semesterFilterWithoutYear() {
+        return Mono.error(SEMESTER_FILTER_WITHOUT_YEAR);
+    }
+
+    public static <T> Mono<T> serviceUnavailable(String service, String reason) {
+        return Mono.error(new ServiceUnavailableException(service, reason));
+    }
+
+    public static <T> Mono<T> deadlineExceeded() {
+        return Mono.error(DEADLINE_EXCEEDED);
+    }
+
+    //same mapping as GlobalControllerExceptionHandler, for errors reported inside a response body (e.g. bulk lines)
+    public static HttpStatus httpStatusOf(Throwable ex) {
+        if (ex instanceof EnrollmentNotFoundException
+                || ex instanceof StudentNotFoundException
+                || ex instanceof CourseNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (ex instanceof InvalidEnrollmentIdException
+                || ex instanceof InvalidCourseIdException
+                || ex instanceof InvalidStudentIdException
+                || ex instanceof InvalidEnrollmentYearException
+                || ex instanceof InvalidEnrollmentRequestException
+                || ex instanceof InvalidInputException) {
+            return HttpStatus.UNPROCESSABLE_ENTITY;
+        }
+        if (ex instanceof DuplicateEnrollmentException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (ex instanceof ServiceUnavailableException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        if (ex instanceof DeadlineExceededException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
     }
 
 }
@@ -0,0 +1,12 @@
+package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
+
+public class DeadlineExceededException extends StacklessException {
+
+    public DeadlineExceededException() {}
+
+    public DeadlineExceededException(String message) { super(message); }
+
+    public DeadlineExceededException(Throwable cause) { super(cause); }
+
+    public DeadlineExceededException(String message, Throwable cause) { super(message, cause); }
+}
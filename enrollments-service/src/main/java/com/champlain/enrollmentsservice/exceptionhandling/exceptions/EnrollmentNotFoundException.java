@@ -1,6 +1,6 @@
 package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
 
-public class EnrollmentNotFoundException extends RuntimeException{
+public class EnrollmentNotFoundException extends StacklessException {
 
     private static final String MESSAGE = "Enrollment with id=%s is not found";
 
@@ -1,6 +1,6 @@
 package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
 
-public class InvalidCourseIdException extends RuntimeException {
+public class InvalidCourseIdException extends StacklessException {
 
     private static final String MESSAGE = "Course id=%s is invalid";
 
@@ -1,6 +1,6 @@
 package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
 
-public class InvalidEnrollmentIdException extends RuntimeException {
+public class InvalidEnrollmentIdException extends StacklessException {
 
     private static final String MESSAGE = "Enrollment id=%s is invalid";
 
@@ -1,6 +1,6 @@
 package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
 
-public class InvalidEnrollmentRequestException extends RuntimeException {
+public class InvalidEnrollmentRequestException extends StacklessException {
 
 
     public InvalidEnrollmentRequestException() {}
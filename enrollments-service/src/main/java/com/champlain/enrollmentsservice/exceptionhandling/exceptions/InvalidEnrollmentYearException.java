@@ -1,6 +1,6 @@
 package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
 
-public class InvalidEnrollmentYearException extends RuntimeException {
+public class InvalidEnrollmentYearException extends StacklessException {
 
     public InvalidEnrollmentYearException() {}
 
@@ -1,6 +1,6 @@
 package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
 
-public class InvalidInputException extends RuntimeException{
+public class InvalidInputException extends StacklessException {
 
     public InvalidInputException() {}
 
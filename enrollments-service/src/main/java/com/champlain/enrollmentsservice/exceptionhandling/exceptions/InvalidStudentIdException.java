@@ -1,6 +1,6 @@
 package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
 
-public class InvalidStudentIdException extends RuntimeException {
+public class InvalidStudentIdException extends StacklessException {
 
     private static final String MESSAGE = "Student id=%s is invalid";
 
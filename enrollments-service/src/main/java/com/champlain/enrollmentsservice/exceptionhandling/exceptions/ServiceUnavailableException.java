@@ -0,0 +1,14 @@
+package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
+
+public class ServiceUnavailableException extends StacklessException {
+
+    private static final String MESSAGE = "%s is unavailable: %s";
+
+    public ServiceUnavailableException() {}
+
+    public ServiceUnavailableException(String service, String reason) { super(MESSAGE.formatted(service, reason)); }
+
+    public ServiceUnavailableException(Throwable cause) { super(cause); }
+
+    public ServiceUnavailableException(String service, String reason, Throwable cause) { super(MESSAGE.formatted(service, reason), cause); }
+}
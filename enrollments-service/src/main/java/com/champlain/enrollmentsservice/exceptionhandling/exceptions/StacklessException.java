@@ -0,0 +1,26 @@
+package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
+
+/*
+   Base of the expected errors that end up as a 404, 409, 422, 503 or 504 response.
+   They are control flow, not bugs: nobody reads their stack trace, and filling it in on every bad request
+   (walking the whole reactor call stack) would cost more than handling the request.
+   Suppression is off too, so a message-only instance can be preallocated and shared (see ApplicationExceptions).
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    protected StacklessException() {
+        super(null, null, false, false);
+    }
+
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected StacklessException(Throwable cause) {
+        super(cause == null ? null : cause.toString(), cause, false, false);
+    }
+
+    protected StacklessException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
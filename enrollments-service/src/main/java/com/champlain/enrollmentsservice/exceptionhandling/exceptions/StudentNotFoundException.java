@@ -1,6 +1,6 @@
 package com.champlain.enrollmentsservice.exceptionhandling.exceptions;
 
-public class StudentNotFoundException extends RuntimeException{
+public class StudentNotFoundException extends StacklessException {
 
     private static final String MESSAGE = "Student with id=%s is not found";
 
@@ -4,8 +4,6 @@ import com.champlain.enrollmentsservice.businesslayer.enrollments.RequestContext
 import com.champlain.enrollmentsservice.dataaccesslayer.Enrollment;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
 
-import java.util.UUID;
-
 public class EntityModelMapper {
 
     public static Enrollment toEntity(RequestContext rc) {
@@ -38,7 +36,7 @@ public class EntityModelMapper {
     }
 
     private static String generateUUIDString(){
-        return UUID.randomUUID().toString();
+        return UuidV7Generator.nextString();
     }
 }
 
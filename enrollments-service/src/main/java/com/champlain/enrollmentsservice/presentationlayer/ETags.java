@@ -0,0 +1,63 @@
+package com.champlain.enrollmentsservice.presentationlayer;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/*
+   ETags from a hash of the values a representation is made of and its media type, so they are computed without
+   serialising the body. Set on a ResponseEntity, WebFlux answers a matching If-None-Match with 304 and no body.
+   The ETag is strong, so it has to change with the bytes: JSON and Smile are different representations with
+   different ETags (and the response varies by Accept). enrollments-service doesn't compress its responses, turning
+   server.compression on would mean hashing the content coding as well, as courses-service does.
+ */
+public final class ETags {
+
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    //what a response of a method without produces is written in, WebFlux prefers them in this order
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, SMILE);
+
+    private ETags() {
+    }
+
+    //the media type WebFlux will pick for the Accept header, the most specific accepted type it can write
+    public static MediaType negotiated(List<MediaType> accept) {
+        List<MediaType> accepted = new ArrayList<>(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptable : accepted) {
+            for (MediaType producible : PRODUCIBLE) {
+                if (acceptable.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    public static String strong(MediaType mediaType, Object... values) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(mediaType.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        for (Object value : values) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            //separator, so ("ab", "c") and ("a", "bc") don't hash the same
+            digest.update((byte) 0);
+        }
+        //128 of the 256 bits are plenty to tell versions of one resource apart
+        byte[] hash = digest.digest();
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+    }
+}
@@ -0,0 +1,64 @@
+package com.champlain.enrollmentsservice.presentationlayer;
+
+import com.champlain.enrollmentsservice.domainclientlayer.RequestDeadline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/*
+   Gives requests a deadline, the X-Request-Timeout they came with or, for all but GETs and streamed (NDJSON) uploads,
+   app.request-deadline.default-timeout (the event streams are GETs that run for as long as their client listens,
+   a bulk upload as long as its client sends lines, each chunk of it gets the default deadline for its lookups instead).
+   The deadline goes into the Reactor context for the calls to students-service and courses-service (RequestDeadline).
+   A request arriving with no time left isn't handled, one still running at its deadline is cancelled, the calls it
+   has in flight with it, and both are answered 504.
+ */
+@Component
+public class RequestDeadlineFilter implements WebFilter {
+
+    private final Duration defaultTimeout;
+
+    public RequestDeadlineFilter(@Value("${app.request-deadline.default-timeout:10s}") Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Duration timeout = RequestDeadline.parse(exchange.getRequest().getHeaders().getFirst(RequestDeadline.HEADER));
+        if (timeout == null) {
+            if (exchange.getRequest().getMethod() == HttpMethod.GET || isStreamedUpload(exchange)) {
+                return chain.filter(exchange);
+            }
+            timeout = defaultTimeout;
+        }
+        if (timeout.isZero() || timeout.isNegative()) {
+            return deadlineExceeded(exchange);
+        }
+        return chain.filter(exchange)
+                .timeout(timeout, Mono.defer(() -> deadlineExceeded(exchange)))
+                .contextWrite(RequestDeadline.in(timeout));
+    }
+
+    private static boolean isStreamedUpload(ServerWebExchange exchange) {
+        MediaType contentType = exchange.getRequest().getHeaders().getContentType();
+        return contentType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+    }
+
+    //a response already started (an event stream) just ends
+    private static Mono<Void> deadlineExceeded(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (!response.isCommitted()) {
+            response.setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        }
+        return response.setComplete();
+    }
+}
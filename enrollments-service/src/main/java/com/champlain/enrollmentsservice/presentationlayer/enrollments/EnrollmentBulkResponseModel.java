@@ -0,0 +1,16 @@
+package com.champlain.enrollmentsservice.presentationlayer.enrollments;
+
+//one line of the bulk response: either the created enrollment or the error for that input line
+public record EnrollmentBulkResponseModel(Long line,
+                                          Integer status,
+                                          EnrollmentResponseModel enrollment,
+                                          String message) {
+
+    public static EnrollmentBulkResponseModel created(Long line, EnrollmentResponseModel enrollment) {
+        return new EnrollmentBulkResponseModel(line, 201, enrollment, null);
+    }
+
+    public static EnrollmentBulkResponseModel failed(Long line, Integer status, String message) {
+        return new EnrollmentBulkResponseModel(line, status, null, message);
+    }
+}
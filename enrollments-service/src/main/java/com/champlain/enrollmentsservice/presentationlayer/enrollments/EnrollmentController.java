@@ -1,10 +1,14 @@
 package com.champlain.enrollmentsservice.presentationlayer.enrollments;
 
 import com.champlain.enrollmentsservice.businesslayer.enrollments.EnrollmentService;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentFilter;
 import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
 import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
+import com.champlain.enrollmentsservice.presentationlayer.ETags;
 import com.champlain.enrollmentsservice.validation.RequestValidator;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
@@ -31,13 +35,68 @@ public class EnrollmentController {
         return enrollmentService.getAllEnrollments();
     }
 
+    //keyset paginated listing, pass the nextPageToken of a page to get the one after it
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<EnrollmentPageResponseModel>> getEnrollmentPage(@RequestParam(defaultValue = "50") int size,
+                                                                               @RequestParam(required = false) String pageToken,
+                                                                               @RequestParam(required = false) String studentId,
+                                                                               @RequestParam(required = false) String courseId,
+                                                                               @RequestParam(required = false) Integer year,
+                                                                               @RequestParam(required = false) Semester semester) {
+        return Mono.just(size)
+                .filter(s -> s >= 1 && s <= 500)
+                .switchIfEmpty(ApplicationExceptions.invalidPageSize(size))
+                .filter(s -> studentId == null || studentId.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidStudentId(studentId))
+                .filter(s -> courseId == null || courseId.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidCourseId(courseId))
+                .filter(s -> semester == null || year != null)
+                .switchIfEmpty(ApplicationExceptions.semesterFilterWithoutYear())
+                .flatMap(s -> enrollmentService.getEnrollmentPage(new EnrollmentFilter(studentId, courseId, year, semester), s, pageToken))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/students/{studentId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<EnrollmentResponseModel> getEnrollmentsByStudentId(@PathVariable String studentId,
+                                                                   @RequestParam(required = false) Integer year,
+                                                                   @RequestParam(required = false) Semester semester) {
+        return Mono.just(studentId)
+                .filter(id -> id.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidStudentId(studentId))
+                .filter(id -> semester == null || year != null)
+                .switchIfEmpty(ApplicationExceptions.semesterFilterWithoutYear())
+                .flatMapMany(id -> enrollmentService.getEnrollmentsByStudentId(id, year, semester));
+    }
+
+    @GetMapping(value = "/courses/{courseId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<EnrollmentResponseModel> getEnrollmentsByCourseId(@PathVariable String courseId,
+                                                                  @RequestParam(required = false) Integer year,
+                                                                  @RequestParam(required = false) Semester semester) {
+        return Mono.just(courseId)
+                .filter(id -> id.length() == 36)
+                .switchIfEmpty(ApplicationExceptions.invalidCourseId(courseId))
+                .filter(id -> semester == null || year != null)
+                .switchIfEmpty(ApplicationExceptions.semesterFilterWithoutYear())
+                .flatMapMany(id -> enrollmentService.getEnrollmentsByCourseId(id, year, semester));
+    }
+
+    @GetMapping(value = "/terms/{year}/{semester}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<EnrollmentResponseModel> getEnrollmentsByTerm(@PathVariable Integer year, @PathVariable Semester semester) {
+        return enrollmentService.getEnrollmentsByTerm(year, semester);
+    }
+
     @GetMapping("{enrollmentId}")
-    public Mono<ResponseEntity<EnrollmentResponseModel>> getEnrollmentByEnrollmentId(@PathVariable String enrollmentId) {
+    public Mono<ResponseEntity<EnrollmentResponseModel>> getEnrollmentByEnrollmentId(@PathVariable String enrollmentId,
+                                                                                     @RequestHeader HttpHeaders headers) {
         return Mono.just(enrollmentId)
                 .filter(id -> id.length() == 36)
                 .switchIfEmpty(com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions.invalidEnrollmentId(enrollmentId))
                 .flatMap(enrollmentService::getEnrollmentByEnrollmentId)
-                .map(ResponseEntity::ok)
+                //a request whose If-None-Match matches the ETag gets a 304 without the body
+                .map(enrollment -> ResponseEntity.ok()
+                        .eTag(eTag(enrollment, ETags.negotiated(headers.getAccept())))
+                        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                        .body(enrollment))
                 .switchIfEmpty(com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions.enrollmentNotFound(enrollmentId));
     }
 
@@ -48,6 +107,12 @@ public class EnrollmentController {
                 .map(e -> ResponseEntity.status(HttpStatus.CREATED).body(e));
     }
 
+    //NDJSON in, NDJSON out: one result line per request line, streamed as the chunks are written
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EnrollmentBulkResponseModel> addEnrollments(@RequestBody Flux<EnrollmentRequestModel> enrollmentRequestModels) {
+        return enrollmentService.addEnrollments(enrollmentRequestModels);
+    }
+
     @PutMapping("{enrollmentId}")
     public Mono<ResponseEntity<EnrollmentResponseModel>> updateEnrollment(@RequestBody Mono<EnrollmentRequestModel> enrollmentRequestModel, @PathVariable String enrollmentId) {
         return Mono.just(enrollmentId)
@@ -69,5 +134,9 @@ public class EnrollmentController {
                 .switchIfEmpty(com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions.enrollmentNotFound(enrollmentId));
     }
 
-
+    private static String eTag(EnrollmentResponseModel enrollment, MediaType mediaType) {
+        return ETags.strong(mediaType, enrollment.enrollmentId(), enrollment.enrollmentYear(), enrollment.semester(),
+                enrollment.studentId(), enrollment.studentFirstName(), enrollment.studentLastName(),
+                enrollment.courseId(), enrollment.courseNumber(), enrollment.courseName());
+    }
 }
@@ -1,13 +1,16 @@
 package com.champlain.enrollmentsservice.presentationlayer.students;
 
+import com.champlain.enrollmentsservice.businesslayer.students.StudentFetchStrategy;
 import com.champlain.enrollmentsservice.businesslayer.students.StudentService;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.exceptionhandling.ApplicationExceptions;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -20,6 +23,10 @@ import java.util.List;
 @RequestMapping("api/v1/students")
 public class StudentController {
 
+    private static final int MAX_FETCH_COUNT = 1_000_000;
+    //students-service serves at most 1000 rows per /row/range call
+    private static final int MAX_CHUNK_SIZE = 1000;
+
     private final StudentService studentService;
 
     public StudentController(StudentService studentService) {
@@ -34,19 +41,27 @@ public class StudentController {
 
 
     @GetMapping(value = "/syncloop", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<StudentResponseModel>> get1000StudentsSync() {
+    public Mono<ResponseEntity<List<StudentResponseModel>>> get1000StudentsSync() {
         LocalTime start = LocalTime.now();
-        List<StudentResponseModel> students = studentService.get1000StudentsSyncLoop();
-        log.debug("Time taken to get 1000 students with syncloop: \t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay());
-        return ResponseEntity.ok().body(students);
+        return studentService.get1000StudentsSyncLoop()
+                .doOnNext(students -> log.debug("Time taken to get 1000 students with syncloop: \t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay()))
+                .map(students -> ResponseEntity.ok().body(students));
     }
 
     @GetMapping(value = "/syncparallel", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<StudentResponseModel>> get1000StudentsSyncParallel() {
+    public Mono<ResponseEntity<List<StudentResponseModel>>> get1000StudentsSyncParallel() {
+        LocalTime start = LocalTime.now();
+        return studentService.get1000StudentsSyncParallel()
+                .doOnNext(students -> log.debug("Time taken to get 1000 students with syncparallel: \t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay()))
+                .map(students -> ResponseEntity.ok().body(students));
+    }
+
+    @GetMapping(value = "/syncvirtual", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<StudentResponseModel>>> get1000StudentsSyncVirtual() {
         LocalTime start = LocalTime.now();
-        List<StudentResponseModel> students = studentService.get1000StudentsSyncParallel();
-        log.debug("Time taken to get 1000 students with syncparallel: \t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay());
-        return ResponseEntity.ok().body(students);
+        return studentService.get1000StudentsSyncVirtual()
+                .doOnNext(students -> log.debug("Time taken to get 1000 students with syncvirtual: \t{}", LocalTime.now().minusNanos(start.toNanoOfDay()).toNanoOfDay()))
+                .map(students -> ResponseEntity.ok().body(students));
     }
 
     @GetMapping(value = "/async", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -73,6 +88,32 @@ public class StudentController {
         return students;
     }
 
+    /*
+       count students by databaseRowId, with ROW (one call per student) or RANGE (one call per chunkSize students).
+       concurrency and prefetch are handed to flatMap, e.g. /fetch?count=100000&strategy=RANGE&chunkSize=1000&concurrency=8
+       concurrency is an upper bound: the calls in flight also stay under the bulkhead and the current concurrency limit
+     */
+    @GetMapping(value = "/fetch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<StudentResponseModel> getStudents(@RequestParam(defaultValue = "1000") int count,
+                                                  @RequestParam(defaultValue = "ROW") StudentFetchStrategy strategy,
+                                                  @RequestParam(defaultValue = "256") int concurrency,
+                                                  @RequestParam(defaultValue = "32") int prefetch,
+                                                  @RequestParam(defaultValue = "1000") int chunkSize) {
+        if (count < 1 || count > MAX_FETCH_COUNT) {
+            return ApplicationExceptions.<StudentResponseModel>invalidInput("count must be between 1 and " + MAX_FETCH_COUNT + ", was " + count).flux();
+        }
+        if (concurrency < 1 || prefetch < 1) {
+            return ApplicationExceptions.<StudentResponseModel>invalidInput("concurrency and prefetch must be at least 1").flux();
+        }
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            return ApplicationExceptions.<StudentResponseModel>invalidInput("chunkSize must be between 1 and " + MAX_CHUNK_SIZE + ", was " + chunkSize).flux();
+        }
+
+        long start = System.nanoTime();
+        return studentService.getStudents(count, strategy, concurrency, prefetch, chunkSize)
+                .doOnComplete(() -> log.debug("Time taken to get {} students with {}: \t{}", count, strategy, System.nanoTime() - start));
+    }
+
     @GetMapping(value = "/{studentId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Mono<StudentResponseModel>> getStudentByStudentId(@PathVariable String studentId) {
         return ResponseEntity.ok().body(studentService.getStudentByStudentId(studentId));
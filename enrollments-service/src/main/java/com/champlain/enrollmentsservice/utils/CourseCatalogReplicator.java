@@ -0,0 +1,31 @@
+package com.champlain.enrollmentsservice.utils;
+
+import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseServiceClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.courses-service.catalog.enabled", havingValue = "true")
+public class CourseCatalogReplicator implements CommandLineRunner, DisposableBean {
+
+    private final CourseServiceClient courseClient;
+
+    public CourseCatalogReplicator(CourseServiceClient courseClient) {
+        this.courseClient = courseClient;
+    }
+
+    @Override
+    public void run(String... args) {
+        log.info("Starting course catalog replication");
+        courseClient.getCatalog().start();
+    }
+
+    @Override
+    public void destroy() {
+        courseClient.getCatalog().stop();
+    }
+}
@@ -5,6 +5,7 @@ import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
 import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -42,9 +43,14 @@ public class DataLoaderService implements CommandLineRunner {
                 .courseName("Shakespeare's Greatest Works")
                 .build();
 
+        //seeded once, on a restart against the same database the enrollments are already there
         Flux.just(enrollment1, enrollment2)
+                .filterWhen(s -> enrollmentRepository.findEnrollmentByEnrollmentId(s.getEnrollmentId()).hasElement()
+                        .map(exists -> !exists))
                 .flatMap(s -> enrollmentRepository.insert(Mono.just(s))
-                        .log(s.toString()))
+                        .log(s.toString())
+                        //the same student, course and term enrolled since under another enrollmentId
+                        .onErrorResume(DuplicateKeyException.class, ex -> Mono.empty()))
                 .subscribe();  //if you don't subscribe, nothing happens
     }
 }
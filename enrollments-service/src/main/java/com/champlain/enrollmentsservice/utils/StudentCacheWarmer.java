@@ -0,0 +1,29 @@
+package com.champlain.enrollmentsservice.utils;
+
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.students-service.cache.warm-up", havingValue = "true")
+public class StudentCacheWarmer implements CommandLineRunner {
+
+    private final StudentServiceClientAsynchronous studentClient;
+
+    public StudentCacheWarmer(StudentServiceClientAsynchronous studentClient) {
+        this.studentClient = studentClient;
+    }
+
+    @Override
+    public void run(String... args) {
+
+        //a cold cache is not fatal, lookups just fall through to students-service
+        studentClient.warmUpStudentCache()
+                .subscribe(
+                        count -> log.info("Student cache warmed up with {} students", count),
+                        ex -> log.warn("Student cache warm up failed: {}", ex.getMessage()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.champlain.enrollmentsservice;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+/*
+   What BlockHound lets through in the tests, on top of what Reactor and Netty already allow.
+   Anything else blocking the event loop or Schedulers.parallel fails the test with a BlockingOperationError.
+ */
+public class BlockHoundTestIntegration implements BlockHoundIntegration {
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        //the DEBUG output written to the console
+        builder.allowBlockingCallsInside("ch.qos.logback.core.UnsynchronizedAppenderBase", "doAppend");
+        //MockServer, the stub students-service and courses-service of the integration tests, isn't ours to check
+        builder.nonBlockingThreadPredicate(current -> current.and(thread -> !thread.getName().startsWith("MockServer-")));
+    }
+}
@@ -64,8 +64,9 @@ public class TestData {
             "Physics"
     );
 
+    //not the term of enrollment1, which would be a duplicate enrollment
     public EnrollmentRequestModel enrollment1RequestModel = new EnrollmentRequestModel(
-            2021,
+            2024,
             Semester.FALL,
             student1ResponseModel.studentId(),
             course1ResponseModel.courseId()
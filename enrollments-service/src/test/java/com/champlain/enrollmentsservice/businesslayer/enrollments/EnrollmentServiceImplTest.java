@@ -1,33 +1,48 @@
 package com.champlain.enrollmentsservice.businesslayer.enrollments;
 
 import com.champlain.enrollmentsservice.dataaccesslayer.Enrollment;
+import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentFilter;
 import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseServiceClient;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
 import com.champlain.enrollmentsservice.exceptionhandling.exceptions.CourseNotFoundException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.DuplicateEnrollmentException;
 import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidCourseIdException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidEnrollmentRequestException;
 import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidStudentIdException;
 import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentBulkResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentPageResponseModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentRequestModel;
 import com.champlain.enrollmentsservice.presentationlayer.enrollments.EnrollmentResponseModel;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.UUID;
 
 import static com.champlain.enrollmentsservice.dataaccesslayer.Semester.FALL;
 import static com.champlain.enrollmentsservice.dataaccesslayer.Semester.WINTER;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +57,8 @@ class EnrollmentServiceImplTest {
     private StudentServiceClientAsynchronous studentServiceClientAsynchronous;
     @Mock
     private CourseServiceClient courseServiceClient;
+    @Spy
+    private EnrollmentCache enrollmentCache = new EnrollmentCache(100, Duration.ofMinutes(1));
 
     private final String STUDENT_ID = UUID.randomUUID().toString();
     private final String COURSE_ID = UUID.randomUUID().toString();
@@ -124,6 +141,64 @@ class EnrollmentServiceImplTest {
                 .verifyComplete();
     }
 
+    @Test
+    public void whenGetEnrollmentPage_withMoreEnrollmentsThanPageSize_thenReturnPageAndNextPageToken() {
+        //arrange
+        EnrollmentFilter filter = new EnrollmentFilter(null, null, 2006, FALL);
+        when(enrollmentRepository.findPage(filter, null, 3))
+                .thenReturn(Flux.just(enrollment1, enrollment2, enrollment3));
+
+        //act
+        Mono<EnrollmentPageResponseModel> result = enrollmentService.getEnrollmentPage(filter, 2, null);
+
+        //assert
+        StepVerifier
+                .create(result)
+                .assertNext(page -> {
+                    assertEquals(2, page.enrollments().size());
+                    assertEquals(enrollment2.getEnrollmentId(), page.enrollments().get(1).enrollmentId());
+                    assertEquals(Base64.getUrlEncoder().withoutPadding().encodeToString("2".getBytes(StandardCharsets.UTF_8)),
+                            page.nextPageToken());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenGetEnrollmentPage_withPageToken_thenReadAfterTheTokenId() {
+        //arrange
+        String lastId = new ObjectId().toHexString();
+        String pageToken = Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+        EnrollmentFilter filter = new EnrollmentFilter(STUDENT_ID, null, null, null);
+        when(enrollmentRepository.findPage(filter, lastId, 3))
+                .thenReturn(Flux.just(enrollment1));
+
+        //act
+        Mono<EnrollmentPageResponseModel> result = enrollmentService.getEnrollmentPage(filter, 2, pageToken);
+
+        //assert
+        StepVerifier
+                .create(result)
+                .assertNext(page -> {
+                    assertEquals(1, page.enrollments().size());
+                    assertNull(page.nextPageToken());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenGetEnrollmentPage_withInvalidPageToken_thenThrowInvalidEnrollmentRequestException() {
+        //act
+        Mono<EnrollmentPageResponseModel> result = enrollmentService.getEnrollmentPage(
+                new EnrollmentFilter(null, null, null, null), 2, "not-a-token");
+
+        //assert
+        StepVerifier
+                .create(result)
+                .expectError(InvalidEnrollmentRequestException.class)
+                .verify();
+        verify(enrollmentRepository, times(0)).findPage(any(), any(), anyInt());
+    }
+
     @Test
     public void whenGetEnrollmentByValidId_thenReturnEnrollment() {
         // arrange
@@ -139,6 +214,87 @@ class EnrollmentServiceImplTest {
     }
 
 
+    @Test
+    public void whenGetEnrollmentByIdTwice_thenSecondReadComesFromTheCache() {
+        // arrange
+        when(enrollmentRepository.findEnrollmentByEnrollmentId(ENROLLMENT_ID)).thenReturn(Mono.just(enrollment1));
+
+        // act
+        Mono<EnrollmentResponseModel> result = enrollmentService.getEnrollmentByEnrollmentId(ENROLLMENT_ID)
+                .then(enrollmentService.getEnrollmentByEnrollmentId(ENROLLMENT_ID));
+
+        // assert
+        StepVerifier.create(result)
+                .expectNextMatches(response -> response.enrollmentId().equals(ENROLLMENT_ID))
+                .verifyComplete();
+        verify(enrollmentRepository, times(1)).findEnrollmentByEnrollmentId(ENROLLMENT_ID);
+        assertEquals(1, enrollmentCache.getCache().synchronous().stats().hitCount());
+    }
+
+    @Test
+    public void whenConcurrentMissesForSameId_thenEnrollmentIsLoadedOnce() {
+        // arrange
+        when(enrollmentRepository.findEnrollmentByEnrollmentId(ENROLLMENT_ID))
+                .thenReturn(Mono.delay(Duration.ofMillis(100)).thenReturn(enrollment1));
+
+        // act
+        Flux<EnrollmentResponseModel> results = Flux.range(0, 10)
+                .flatMap(i -> enrollmentService.getEnrollmentByEnrollmentId(ENROLLMENT_ID));
+
+        // assert
+        StepVerifier.create(results)
+                .expectNextCount(10)
+                .verifyComplete();
+        verify(enrollmentRepository, times(1)).findEnrollmentByEnrollmentId(ENROLLMENT_ID);
+    }
+
+    @Test
+    public void whenEnrollmentDeleted_thenCachedEnrollmentIsNoLongerReturned() {
+        // arrange
+        when(enrollmentRepository.findEnrollmentByEnrollmentId(ENROLLMENT_ID))
+                .thenReturn(Mono.just(enrollment1), Mono.just(enrollment1), Mono.empty());
+        when(enrollmentRepository.delete(enrollment1)).thenReturn(Mono.empty());
+
+        // act
+        Mono<EnrollmentResponseModel> result = enrollmentService.getEnrollmentByEnrollmentId(ENROLLMENT_ID)
+                .then(enrollmentService.deleteEnrollmentByEnrollmentId(ENROLLMENT_ID))
+                .then(enrollmentService.getEnrollmentByEnrollmentId(ENROLLMENT_ID));
+
+        // assert
+        StepVerifier.create(result)
+                .verifyComplete();
+        verify(enrollmentCache).invalidate(ENROLLMENT_ID);
+    }
+
+    @Test
+    public void whenEnrollmentUpdated_thenNextGetReadsTheUpdatedEnrollment() {
+        // arrange
+        EnrollmentRequestModel requestModel = new EnrollmentRequestModel(2010, WINTER, STUDENT_ID, COURSE_ID);
+        Enrollment updated = Enrollment.builder()
+                .id(enrollment1.getId())
+                .enrollmentId(ENROLLMENT_ID)
+                .enrollmentYear(2010)
+                .semester(WINTER)
+                .studentId(STUDENT_ID)
+                .courseId(COURSE_ID)
+                .build();
+        when(enrollmentRepository.findEnrollmentByEnrollmentId(ENROLLMENT_ID))
+                .thenReturn(Mono.just(enrollment1), Mono.just(enrollment1), Mono.just(updated));
+        when(studentServiceClientAsynchronous.getStudentByStudentId(STUDENT_ID)).thenReturn(Mono.just(student));
+        when(courseServiceClient.getCourseByCourseId(COURSE_ID)).thenReturn(Mono.just(course));
+        when(enrollmentRepository.save(any(Enrollment.class))).thenReturn(Mono.just(updated));
+
+        // act
+        Mono<EnrollmentResponseModel> result = enrollmentService.getEnrollmentByEnrollmentId(ENROLLMENT_ID)
+                .then(enrollmentService.updateEnrollment(Mono.just(requestModel), ENROLLMENT_ID))
+                .then(enrollmentService.getEnrollmentByEnrollmentId(ENROLLMENT_ID));
+
+        // assert
+        StepVerifier.create(result)
+                .expectNextMatches(response -> response.enrollmentYear() == 2010 && response.semester() == WINTER)
+                .verifyComplete();
+    }
+
     @Test
     public void whenUpdateEnrollment_thenReturnUpdatedEnrollment(){
         //arrange
@@ -254,6 +410,141 @@ class EnrollmentServiceImplTest {
                 .verifyComplete();
     }
 
+    @Test
+    public void whenAddEnrollment_withDelayedClients_thenLatencyIsBoundedBySlowerCall() {
+        //arrange
+        EnrollmentRequestModel requestModel = new EnrollmentRequestModel(2010, FALL, STUDENT_ID, COURSE_ID);
+
+        when(studentServiceClientAsynchronous.getStudentByStudentId(anyString()))
+                .thenAnswer(invocation -> Mono.just(student).delayElement(Duration.ofMillis(300)));
+        when(courseServiceClient.getCourseByCourseId(anyString()))
+                .thenAnswer(invocation -> Mono.just(course).delayElement(Duration.ofMillis(200)));
+        when(enrollmentRepository.save(any(Enrollment.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        //act & assert: sequential lookups would need 500ms, concurrent ones only the slower 300ms
+        StepVerifier
+                .withVirtualTime(() -> enrollmentService.addEnrollment(Mono.just(requestModel)))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(299))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNextMatches(enrollmentResponseModel ->
+                        enrollmentResponseModel.studentFirstName().equals("Jeremy") &&
+                                enrollmentResponseModel.courseName().equals("English"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenAddEnrollment_withStudentAndCourseErrors_thenStudentErrorWins() {
+        // arrange
+        EnrollmentRequestModel requestModel = new EnrollmentRequestModel(2010, FALL, NON_EXISTING_UUID, NON_EXISTING_UUID);
+        when(studentServiceClientAsynchronous.getStudentByStudentId(anyString()))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(50)).then(Mono.error(new StudentNotFoundException(NON_EXISTING_UUID))));
+        when(courseServiceClient.getCourseByCourseId(anyString()))
+                .thenReturn(Mono.error(new CourseNotFoundException(NON_EXISTING_UUID)));
+
+        // act
+        Mono<EnrollmentResponseModel> result = enrollmentService.addEnrollment(Mono.just(requestModel));
+
+        // assert
+        StepVerifier.create(result)
+                .expectError(StudentNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    public void whenAddEnrollmentsInBulk_thenLookupsAreDeduplicatedAndWrittenWithOneInsert() {
+        //arrange
+        when(studentServiceClientAsynchronous.getStudentByStudentId(STUDENT_ID))
+                .thenReturn(Mono.just(student));
+        when(courseServiceClient.getCourseByCourseId(COURSE_ID))
+                .thenReturn(Mono.just(course));
+        when(courseServiceClient.getCourseByCourseId(NON_EXISTING_UUID))
+                .thenReturn(Mono.error(new CourseNotFoundException(NON_EXISTING_UUID)));
+        when(enrollmentRepository.insert(anyIterable()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<Iterable<Enrollment>>getArgument(0)));
+
+        Flux<EnrollmentRequestModel> requests = Flux.just(
+                new EnrollmentRequestModel(2010, FALL, STUDENT_ID, COURSE_ID),
+                new EnrollmentRequestModel(2011, FALL, STUDENT_ID, COURSE_ID),
+                new EnrollmentRequestModel(1990, FALL, STUDENT_ID, COURSE_ID),
+                new EnrollmentRequestModel(2012, FALL, STUDENT_ID, NON_EXISTING_UUID));
+
+        //act
+        Flux<EnrollmentBulkResponseModel> result = enrollmentService.addEnrollments(requests);
+
+        //assert
+        StepVerifier
+                .create(result)
+                .expectNextMatches(line -> line.line() == 0 && line.status() == 201 && line.enrollment().enrollmentYear().equals(2010))
+                .expectNextMatches(line -> line.line() == 1 && line.status() == 201 && line.enrollment().enrollmentYear().equals(2011))
+                .expectNextMatches(line -> line.line() == 2 && line.status() == 422)
+                .expectNextMatches(line -> line.line() == 3 && line.status() == 404)
+                .verifyComplete();
+
+        verify(studentServiceClientAsynchronous, times(1)).getStudentByStudentId(STUDENT_ID);
+        verify(courseServiceClient, times(1)).getCourseByCourseId(COURSE_ID);
+        verify(enrollmentRepository, times(1)).insert(anyIterable());
+    }
+
+    @Test
+    public void whenAddEnrollment_withDuplicateKey_thenThrowDuplicateEnrollmentException() {
+        //arrange
+        EnrollmentRequestModel requestModel = new EnrollmentRequestModel(2010, FALL, STUDENT_ID, COURSE_ID);
+
+        when(studentServiceClientAsynchronous.getStudentByStudentId(anyString()))
+                .thenReturn(Mono.just(student));
+        when(courseServiceClient.getCourseByCourseId(anyString()))
+                .thenReturn(Mono.just(course));
+        when(enrollmentRepository.save(any(Enrollment.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")));
+
+        //act
+        Mono<EnrollmentResponseModel> result = enrollmentService.addEnrollment(Mono.just(requestModel));
+
+        //assert
+        StepVerifier
+                .create(result)
+                .expectErrorMatches(ex -> ex instanceof DuplicateEnrollmentException
+                        && ex.getMessage().contains(STUDENT_ID)
+                        && ex.getMessage().contains(COURSE_ID))
+                .verify();
+    }
+
+    @Test
+    public void whenAddEnrollmentsInBulk_withDuplicateInChunk_thenOnlyDuplicateLineConflicts() {
+        //arrange
+        when(studentServiceClientAsynchronous.getStudentByStudentId(STUDENT_ID))
+                .thenReturn(Mono.just(student));
+        when(courseServiceClient.getCourseByCourseId(COURSE_ID))
+                .thenReturn(Mono.just(course));
+        //the chunk insert fails on the duplicate line, nothing was written before it
+        when(enrollmentRepository.insert(anyIterable()))
+                .thenReturn(Flux.error(new DuplicateKeyException("E11000 duplicate key error")));
+        when(enrollmentRepository.findEnrollmentByEnrollmentId(anyString()))
+                .thenAnswer(invocation -> Mono.empty());
+        when(enrollmentRepository.save(any(Enrollment.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        Flux<EnrollmentRequestModel> requests = Flux.just(
+                new EnrollmentRequestModel(2010, FALL, STUDENT_ID, COURSE_ID),
+                new EnrollmentRequestModel(2010, FALL, STUDENT_ID, COURSE_ID),
+                new EnrollmentRequestModel(2011, FALL, STUDENT_ID, COURSE_ID));
+
+        //act
+        Flux<EnrollmentBulkResponseModel> result = enrollmentService.addEnrollments(requests);
+
+        //assert
+        StepVerifier
+                .create(result)
+                .expectNextMatches(line -> line.line() == 0 && line.status() == 201)
+                .expectNextMatches(line -> line.line() == 1 && line.status() == 409)
+                .expectNextMatches(line -> line.line() == 2 && line.status() == 201)
+                .verifyComplete();
+    }
+
     @Test
     public void whenAddEnrollment_withNonExistentStudent_thenThrowStudentNotFoundException() {
         // arrange
@@ -0,0 +1,68 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@ActiveProfiles
+@Import(EnrollmentIndexInitializer.class)
+class EnrollmentIndexInitializerTest {
+
+    @Autowired
+    private EnrollmentIndexInitializer enrollmentIndexInitializer;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    //the other tests of the context expect every index
+    @AfterEach
+    public void restoreIndexes() {
+        mongoTemplate.dropCollection(Enrollment.class)
+                .then(enrollmentIndexInitializer.ensureIndexes())
+                .block(Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void whenCollectionHoldsDuplicates_thenOtherIndexesAreStillBuilt() {
+        //arrange
+        Document enrollment = new Document("enrollmentId", UUID.randomUUID().toString())
+                .append("studentId", UUID.randomUUID().toString())
+                .append("courseId", UUID.randomUUID().toString())
+                .append("enrollmentYear", 2021)
+                .append("semester", "FALL");
+        mongoTemplate.dropCollection(Enrollment.class)
+                .then(mongoTemplate.getCollection("enrollment"))
+                .flatMap(collection -> Mono.from(collection.insertMany(List.of(
+                        new Document(enrollment), new Document(enrollment)))))
+                .block(Duration.ofSeconds(10));
+
+        //act
+        Mono<List<String>> indexes = enrollmentIndexInitializer.ensureIndexes()
+                .then(mongoTemplate.indexOps(Enrollment.class).getIndexInfo().map(IndexInfo::getName).collectList());
+
+        //assert
+        StepVerifier.create(indexes)
+                .assertNext(names -> {
+                    assertTrue(names.containsAll(List.of("student_term", "course_term", "term")), "expected the non-unique indexes: " + names);
+                    assertFalse(names.contains("enrollmentId_unique"), "unexpected unique index: " + names);
+                    assertFalse(names.contains("student_course_term_unique"), "unexpected unique index: " + names);
+                })
+                .verifyComplete();
+    }
+}
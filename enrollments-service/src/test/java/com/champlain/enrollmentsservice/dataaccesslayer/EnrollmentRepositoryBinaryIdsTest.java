@@ -0,0 +1,138 @@
+package com.champlain.enrollmentsservice.dataaccesslayer;
+
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest(properties = "app.ids.storage=binary")
+@ActiveProfiles
+@Import({EnrollmentIndexInitializer.class, IdStorageConfig.class})
+class EnrollmentRepositoryBinaryIdsTest {
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void setupDB() {
+        StepVerifier
+                .create(enrollmentRepository.deleteAll())
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenSaved_thenIdsAreStoredAsBinaryUuids() {
+        //arrange
+        Enrollment enrollment = buildEnrollment(UUID.randomUUID().toString());
+
+        //act
+        Mono<Document> stored = enrollmentRepository.save(enrollment)
+                .then(mongoTemplate.getCollection("enrollment"))
+                .flatMap(collection -> Mono.from(collection.find().first()));
+
+        //assert
+        StepVerifier.create(stored)
+                .assertNext(document -> IdStorageConfig.ID_PROPERTIES.forEach(property -> {
+                    Binary binary = assertInstanceOf(Binary.class, document.get(property), property);
+                    assertEquals(BsonBinarySubType.UUID_STANDARD.getValue(), binary.getType());
+                    assertEquals(16, binary.getData().length);
+                }))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenFindEnrollmentByEnrollmentId_thenIdsAreReadBackAsStrings() {
+        //arrange
+        Enrollment enrollment = buildEnrollment(UUID.randomUUID().toString());
+
+        //act
+        Mono<Enrollment> found = enrollmentRepository.save(enrollment)
+                .then(enrollmentRepository.findEnrollmentByEnrollmentId(enrollment.getEnrollmentId()));
+
+        //assert
+        StepVerifier.create(found)
+                .assertNext(foundEnrollment -> {
+                    assertEquals(enrollment.getEnrollmentId(), foundEnrollment.getEnrollmentId());
+                    assertEquals(enrollment.getStudentId(), foundEnrollment.getStudentId());
+                    assertEquals(enrollment.getCourseId(), foundEnrollment.getCourseId());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenFindingByStudentAndTermOrPage_thenBinaryStudentIdIsMatched() {
+        //arrange
+        String studentId = UUID.randomUUID().toString();
+        Publisher<Enrollment> setup = enrollmentRepository.insert(List.of(buildEnrollment(studentId), buildEnrollment(studentId)))
+                .thenMany(enrollmentRepository.findAllByStudentIdAndEnrollmentYearAndSemester(studentId, 2005, Semester.FALL)
+                        .concatWith(enrollmentRepository.findPage(new EnrollmentFilter(studentId, null, null, null), null, 10)));
+
+        //act and assert
+        StepVerifier.create(setup)
+                .expectNextCount(4)
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenSavingSameStudentCourseAndTermTwice_thenDuplicateKeyIsRejected() {
+        //arrange
+        String studentId = UUID.randomUUID().toString();
+        Enrollment first = buildEnrollment(studentId);
+        Enrollment second = buildEnrollment(studentId);
+        second.setCourseId(first.getCourseId());
+
+        //act and assert
+        StepVerifier
+                .create(enrollmentRepository.save(first).then(enrollmentRepository.save(second)))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+    }
+
+    @Test
+    public void whenIdIsNotAUuid_thenItIsStoredAndFoundAsIs() {
+        //arrange
+        Enrollment enrollment = buildEnrollment("not-a-uuid-but-still-36-characters!");
+
+        //act
+        Mono<Enrollment> found = enrollmentRepository.save(enrollment)
+                .thenMany(enrollmentRepository.findAllByStudentId(enrollment.getStudentId()))
+                .next();
+
+        //assert
+        StepVerifier.create(found)
+                .assertNext(foundEnrollment -> assertEquals(enrollment.getStudentId(), foundEnrollment.getStudentId()))
+                .verifyComplete();
+    }
+
+    private Enrollment buildEnrollment(String studentId) {
+        return Enrollment.builder()
+                .enrollmentId(UUID.randomUUID().toString())
+                .enrollmentYear(2005)
+                .courseName("Web Services")
+                .studentId(studentId)
+                .semester(Semester.FALL)
+                .studentFirstName("Christopher")
+                .studentLastName("Hernandez-Dauplo")
+                .courseId(UUID.randomUUID().toString())
+                .courseNumber("Web-200")
+                .build();
+    }
+}
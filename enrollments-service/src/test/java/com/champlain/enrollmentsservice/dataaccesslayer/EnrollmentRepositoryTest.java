@@ -1,23 +1,36 @@
 package com.champlain.enrollmentsservice.dataaccesslayer;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataMongoTest
 @ActiveProfiles
+@Import(EnrollmentIndexInitializer.class)
 class EnrollmentRepositoryTest {
 
       @Autowired
         private EnrollmentRepository enrollmentRepository;
 
+      @Autowired
+        private ReactiveMongoTemplate mongoTemplate;
+
         @Test
         public void shouldSaveSingleEnrollment() {
             Publisher<Enrollment> setup = enrollmentRepository.deleteAll().thenMany(enrollmentRepository.save(buildEnrollment()));
@@ -27,13 +40,171 @@ class EnrollmentRepositoryTest {
                     .verifyComplete();
         }
 
+        @Test
+        public void shouldFindEnrollmentsByStudentAndTerm() {
+            Enrollment enrollment = buildEnrollment();
+            Publisher<Enrollment> setup = enrollmentRepository.deleteAll()
+                    .then(enrollmentRepository.save(enrollment))
+                    .thenMany(enrollmentRepository.findAllByStudentIdAndEnrollmentYearAndSemester(
+                            enrollment.getStudentId(), enrollment.getEnrollmentYear(), enrollment.getSemester()));
+            StepVerifier
+                    .create(setup)
+                    .expectNextMatches(found -> found.getEnrollmentId().equals(enrollment.getEnrollmentId()))
+                    .verifyComplete();
+        }
+
+        @Test
+        public void whenQueryingByEnrollmentId_thenUniqueIndexIsUsed() {
+            assertUsesIndex(new Document("enrollmentId", UUID.randomUUID().toString()), "enrollmentId_unique");
+        }
+
+        //student_course_term_unique also starts with studentId, so the planner may pick either one
+        @Test
+        public void whenQueryingByStudentAndTerm_thenStudentTermIndexIsUsed() {
+            assertUsesIndex(new Document("studentId", UUID.randomUUID().toString()),
+                    "student_term", "student_course_term_unique");
+            assertUsesIndex(new Document("studentId", UUID.randomUUID().toString())
+                    .append("enrollmentYear", 2021)
+                    .append("semester", "FALL"), "student_term", "student_course_term_unique");
+        }
+
+        @Test
+        public void whenSavingSameStudentCourseAndTermTwice_thenDuplicateKeyIsRejected() {
+            String studentId = UUID.randomUUID().toString();
+            Enrollment first = buildEnrollment(null, studentId);
+            Enrollment second = buildEnrollment(null, studentId);
+            second.setCourseId(first.getCourseId());
+
+            Publisher<Enrollment> setup = enrollmentRepository.save(first)
+                    .then(enrollmentRepository.save(second));
+
+            StepVerifier
+                    .create(setup)
+                    .expectError(DuplicateKeyException.class)
+                    .verify();
+        }
+
+        @Test
+        public void whenQueryingByCourseAndTerm_thenCourseTermIndexIsUsed() {
+            assertUsesIndex(new Document("courseId", UUID.randomUUID().toString())
+                    .append("enrollmentYear", 2021), "course_term");
+        }
+
+        @Test
+        public void whenQueryingByTerm_thenTermIndexIsUsed() {
+            assertUsesIndex(new Document("enrollmentYear", 2021).append("semester", "FALL"), "term");
+        }
+
+        @Test
+        public void whenReadingKeysetPage_thenPageComesOffTheIndexWithoutSorting() {
+            assertReadsPageWithoutSorting(new Document("enrollmentYear", 2021).append("semester", "FALL"), "term", "year");
+        }
+
+        @Test
+        public void whenReadingKeysetPageOfAStudent_thenPageComesOffTheIndexWithoutSorting() {
+            assertReadsPageWithoutSorting(new Document("studentId", UUID.randomUUID().toString()), "student");
+        }
+
+        @Test
+        public void whenReadingKeysetPageOfACourse_thenPageComesOffTheIndexWithoutSorting() {
+            assertReadsPageWithoutSorting(new Document("courseId", UUID.randomUUID().toString()), "course");
+        }
+
+        @Test
+        public void whenReadingKeysetPageOfAYear_thenPageComesOffTheIndexWithoutSorting() {
+            assertReadsPageWithoutSorting(new Document("enrollmentYear", 2021), "year");
+        }
+
+        @Test
+        public void shouldReadKeysetPagesInIdOrder() {
+            String studentId = UUID.randomUUID().toString();
+            Publisher<Enrollment> setup = enrollmentRepository.deleteAll()
+                    .thenMany(enrollmentRepository.insert(List.of(
+                            buildEnrollment(null, studentId),
+                            buildEnrollment(null, studentId),
+                            buildEnrollment(null, studentId))))
+                    .then(enrollmentRepository.findPage(new EnrollmentFilter(studentId, null, null, null), null, 2)
+                            .last())
+                    .flatMapMany(last -> enrollmentRepository.findPage(new EnrollmentFilter(studentId, null, null, null), last.getId(), 2));
+
+            StepVerifier
+                    .create(setup)
+                    .expectNextCount(1)
+                    .verifyComplete();
+        }
+
+        //the query findPage sends for a filter, after the lowest possible _id so the _id index alone is no shortcut
+        private void assertReadsPageWithoutSorting(Document filter, String... indexNames) {
+            Mono<Document> explain = enrollmentRepository.save(buildEnrollment())
+                    .then(mongoTemplate.getCollection("enrollment"))
+                    .flatMap(collection -> Mono.from(collection
+                            .find(filter.append("_id", new Document("$gt", new ObjectId("000000000000000000000000"))))
+                            .sort(new Document("_id", 1))
+                            .limit(51)
+                            .explain()));
+
+            StepVerifier.create(explain)
+                    .assertNext(plan -> {
+                        Document winningPlan = winningPlan(plan);
+                        List<String> indexes = values(winningPlan, "indexName");
+                        assertTrue(Arrays.stream(indexNames).anyMatch(indexes::contains),
+                                "expected one of " + Arrays.toString(indexNames) + ": " + winningPlan.toJson());
+                        assertFalse(values(winningPlan, "stage").contains("SORT"), "unexpected in-memory sort: " + winningPlan.toJson());
+                    })
+                    .verifyComplete();
+        }
+
+        private void assertUsesIndex(Document filter, String... indexNames) {
+            Mono<Document> explain = enrollmentRepository.save(buildEnrollment())
+                    .then(mongoTemplate.getCollection("enrollment"))
+                    .flatMap(collection -> Mono.from(collection.find(filter).explain()));
+
+            StepVerifier.create(explain)
+                    .assertNext(plan -> {
+                        Document winningPlan = winningPlan(plan);
+                        List<String> stages = values(winningPlan, "stage");
+                        List<String> indexes = values(winningPlan, "indexName");
+                        assertTrue(stages.contains("IXSCAN"), "expected an index scan: " + winningPlan.toJson());
+                        assertTrue(Arrays.stream(indexNames).anyMatch(indexes::contains),
+                                "expected one of " + Arrays.toString(indexNames) + ": " + winningPlan.toJson());
+                        assertFalse(stages.contains("COLLSCAN"), "unexpected collection scan: " + winningPlan.toJson());
+                    })
+                    .verifyComplete();
+        }
+
+        //only the plan that runs, the rejectedPlans next to it may well scan other indexes or the collection
+        private static Document winningPlan(Document explain) {
+            return explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        }
+
+        //the values of key in the plan stage and all its nested inputStage/inputStages/queryPlan
+        private static List<String> values(Object stage, String key) {
+            List<String> values = new ArrayList<>();
+            if (stage instanceof Document document) {
+                document.forEach((name, value) -> {
+                    if (name.equals(key) && value instanceof String string) {
+                        values.add(string);
+                    } else {
+                        values.addAll(values(value, key));
+                    }
+                });
+            } else if (stage instanceof List<?> stages) {
+                stages.forEach(inner -> values.addAll(values(inner, key)));
+            }
+            return values;
+        }
+
         private Enrollment buildEnrollment() {
+            return buildEnrollment("20", UUID.randomUUID().toString());
+        }
+
+        private Enrollment buildEnrollment(String id, String studentId) {
             return Enrollment.builder()
                     .enrollmentId(UUID.randomUUID().toString())
-                    .id("20")
+                    .id(id)
                     .enrollmentYear(2005)
                     .courseName("Web Services")
-                    .studentId(UUID.randomUUID().toString())
+                    .studentId(studentId)
                     .semester(Semester.FALL)
                     .studentFirstName("Christopher")
                     .studentLastName("Hernandez-Dauplo")
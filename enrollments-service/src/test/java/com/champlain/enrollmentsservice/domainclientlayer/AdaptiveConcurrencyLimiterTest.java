@@ -0,0 +1,116 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int maxQueueSize, Duration maxQueueWait) {
+        return new AdaptiveConcurrencyLimiter("students-service",
+                new AdaptiveConcurrencyLimiter.Settings(initialLimit, 1, initialLimit, 0.9, 2.0, maxQueueSize, maxQueueWait),
+                registry);
+    }
+
+    private Mono<String> call(Duration latency) {
+        return Mono.delay(latency)
+                .thenReturn("student")
+                .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    private double rejections() {
+        return registry.get(ClientResilience.REJECTIONS).tag("reason", "limit-exceeded").counter().count();
+    }
+
+    @Test
+    public void whenMoreCallsThanTheLimit_thenTheOthersWaitForASlot() {
+        //arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 10, Duration.ofSeconds(5));
+
+        //act
+        Flux<String> calls = Flux.range(0, 6).flatMap(i -> limiter.limit(call(Duration.ofMillis(50))));
+
+        //assert
+        StepVerifier.create(calls)
+                .expectNextCount(6)
+                .verifyComplete();
+        assertEquals(2, maxInFlight.get());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void whenQueueIsFull_thenCallIsRejected() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 0, Duration.ofSeconds(5));
+
+        StepVerifier.create(Mono.zip(
+                        limiter.limit(call(Duration.ofMillis(50))).materialize(),
+                        limiter.limit(call(Duration.ofMillis(50))).materialize()))
+                .expectNextMatches(t -> t.getT1().isOnNext()
+                        && t.getT2().getThrowable() instanceof ServiceUnavailableException)
+                .verifyComplete();
+        assertEquals(1.0, rejections());
+    }
+
+    @Test
+    public void whenCallWaitsTooLongForASlot_thenItIsRejected() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 10, Duration.ofMillis(50));
+
+        StepVerifier.create(Mono.zip(
+                        limiter.limit(call(Duration.ofMillis(500))).materialize(),
+                        limiter.limit(call(Duration.ofMillis(10))).materialize()))
+                .expectNextMatches(t -> t.getT1().isOnNext()
+                        && t.getT2().getThrowable() instanceof ServiceUnavailableException)
+                .verifyComplete();
+        assertEquals(1.0, rejections());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    public void whenCallsFail_thenLimitDecreases() {
+        //arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 10, Duration.ofSeconds(5));
+
+        //act
+        for (int i = 0; i < 30; i++) {
+            StepVerifier.create(limiter.limit(Mono.error(new IOException("Connection reset"))))
+                    .expectError(IOException.class)
+                    .verify();
+        }
+
+        //assert
+        //once every limit calls: 10, 9, 8.1 then 7.29
+        assertEquals(7, limiter.getLimit());
+    }
+
+    @Test
+    public void whenRoundTripsGetSlower_thenLimitDecreases() {
+        //arrange
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 10, Duration.ofSeconds(5));
+
+        //act
+        Flux<String> calls = Flux.concat(
+                Flux.range(0, 20).concatMap(i -> limiter.limit(call(Duration.ofMillis(1)))),
+                Flux.range(0, 20).concatMap(i -> limiter.limit(call(Duration.ofMillis(30)))));
+
+        //assert
+        StepVerifier.create(calls)
+                .expectNextCount(40)
+                .verifyComplete();
+        assertTrue(limiter.getLimit() < 4, "limit " + limiter.getLimit());
+    }
+}
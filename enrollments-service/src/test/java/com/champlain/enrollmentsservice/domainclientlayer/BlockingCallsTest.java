@@ -0,0 +1,117 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple3;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockingCallsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BlockingCalls blockingCalls = new BlockingCalls("students-service", new BlockingCalls.Settings(1, 1), registry);
+
+    @AfterEach
+    public void close() {
+        blockingCalls.close();
+    }
+
+    private static String slowCall() throws InterruptedException {
+        Thread.sleep(100);
+        return Thread.currentThread().getName();
+    }
+
+    private long timed(String name) {
+        return registry.get(name).tag("operation", "getStudentByRowId").timer().count();
+    }
+
+    @Test
+    public void whenBlockingOnTheEventLoop_thenTestFails() {
+        //act
+        Mono<String> blocking = Mono.delay(Duration.ofMillis(1)).map(tick -> {
+            try {
+                return slowCall();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        //assert
+        StepVerifier.create(blocking)
+                .expectError(BlockingOperationError.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void whenOffloadedFromTheEventLoop_thenCallRunsOnBlockingCallsThread() {
+        //act
+        Mono<String> offloaded = Mono.delay(Duration.ofMillis(1))
+                .flatMap(tick -> blockingCalls.offload("getStudentByRowId", BlockingCallsTest::slowCall));
+
+        //assert
+        StepVerifier.create(offloaded)
+                .expectNextMatches(thread -> thread.startsWith("blocking-calls-students-service"))
+                .verifyComplete();
+        assertEquals(1, timed(BlockingCalls.CALLS));
+    }
+
+    @Test
+    public void whenTooManyCallsQueued_thenCallIsRejected() throws InterruptedException {
+        //arrange
+        //one call running on the only thread, then one waiting for it
+        CountDownLatch started = new CountDownLatch(1);
+        Mono<Signal<String>> running = blockingCalls.offload("getStudentByRowId", () -> {
+                    started.countDown();
+                    return slowCall();
+                })
+                .materialize()
+                .cache();
+        running.subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Mono<String> call = blockingCalls.offload("getStudentByRowId", BlockingCallsTest::slowCall);
+
+        //act
+        Mono<Tuple3<Signal<String>, Signal<String>, Signal<String>>> calls = Mono.zip(running, call.materialize(), call.materialize());
+
+        //assert
+        StepVerifier.create(calls)
+                .expectNextMatches(t -> t.getT1().isOnNext()
+                        && t.getT2().isOnNext()
+                        && t.getT3().getThrowable() instanceof ServiceUnavailableException)
+                .verifyComplete();
+        assertEquals(1.0, registry.get(ClientResilience.REJECTIONS).tag("reason", "blocking-queue-full").counter().count());
+    }
+
+    @Test
+    public void whenGuardedCallRunsOnBlockingThread_thenNoViolationIsRecorded() {
+        //act
+        String student = blockingCalls.guard("getStudentByRowId", () -> "student");
+
+        //assert
+        assertEquals("student", student);
+        assertTrue(registry.find(BlockingCalls.GUARD_VIOLATIONS).timers().isEmpty());
+    }
+
+    @Test
+    public void whenGuardedCallRunsOnNonBlockingThread_thenViolationIsRecorded() {
+        //act
+        Mono<String> guarded = Mono.fromSupplier(() -> blockingCalls.guard("getStudentByRowId", () -> "student"))
+                .subscribeOn(Schedulers.parallel());
+
+        //assert
+        StepVerifier.create(guarded).expectNext("student").verifyComplete();
+        assertEquals(1, timed(BlockingCalls.GUARD_VIOLATIONS));
+    }
+}
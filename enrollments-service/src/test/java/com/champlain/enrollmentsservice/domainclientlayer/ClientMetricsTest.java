@@ -0,0 +1,71 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ClientMetrics metrics = new ClientMetrics(registry, "students-service");
+
+    @Test
+    public void whenCallSucceeds_thenItIsTimedWithSuccessOutcome() {
+        StepVerifier.create(metrics.timed("getAllStudents", Flux.just("a", "b")))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertEquals(1, registry.get(ClientMetrics.REQUESTS)
+                .tags("client", "students-service", "operation", "getAllStudents", "outcome", "SUCCESS")
+                .timer().count());
+        assertEquals(0, registry.get(ClientMetrics.IN_FLIGHT).tag("operation", "getAllStudents").gauge().value());
+    }
+
+    @Test
+    public void whenCallFails_thenErrorIsCountedByException() {
+        Mono<String> call = metrics.timed("getStudentByStudentId", Mono.error(new StudentNotFoundException("id")));
+
+        StepVerifier.create(call)
+                .expectError(StudentNotFoundException.class)
+                .verify();
+
+        assertEquals(1, registry.get(ClientMetrics.REQUESTS)
+                .tags("operation", "getStudentByStudentId", "outcome", "ERROR")
+                .timer().count());
+        assertEquals(1, registry.get(ClientMetrics.ERRORS)
+                .tags("operation", "getStudentByStudentId", "exception", "StudentNotFoundException")
+                .counter().count());
+    }
+
+    @Test
+    public void whenCallIsRunning_thenItIsCountedInFlight() {
+        Mono<String> call = metrics.timed("getStudentByStudentId", Mono.just("a").delayElement(Duration.ofMillis(100)));
+
+        StepVerifier.create(call)
+                .expectSubscription()
+                .then(() -> assertEquals(1, registry.get(ClientMetrics.IN_FLIGHT)
+                        .tag("operation", "getStudentByStudentId").gauge().value()))
+                .expectNext("a")
+                .verifyComplete();
+
+        assertEquals(0, registry.get(ClientMetrics.IN_FLIGHT).tag("operation", "getStudentByStudentId").gauge().value());
+    }
+
+    @Test
+    public void whenCallIsCancelled_thenItIsTimedWithCancelledOutcome() {
+        StepVerifier.create(metrics.timed("getAllStudents", Flux.never()))
+                .thenCancel()
+                .verify();
+
+        assertEquals(1, registry.get(ClientMetrics.REQUESTS)
+                .tags("operation", "getAllStudents", "outcome", "CANCELLED")
+                .timer().count());
+    }
+}
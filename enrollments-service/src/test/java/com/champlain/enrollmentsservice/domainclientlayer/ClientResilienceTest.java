@@ -0,0 +1,307 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentServiceClientAsynchronous;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.DeadlineExceededException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.ServiceUnavailableException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientResilienceTest {
+
+    private static final String STUDENT_ID = "c3540a89-cb47-4c96-888e-ff96708db4d8";
+    private static final String STUDENT_JSON = """
+            {"studentId":"c3540a89-cb47-4c96-888e-ff96708db4d8","firstName":"Donna","lastName":"Hornsby","program":"History","stuff":"stuff"}
+            """;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger httpCalls = new AtomicInteger();
+
+    //a breaker that opens after 4 calls, 2 retries without much backoff, timeout of 200ms and 2 calls in flight
+    private final ClientResilience resilience = new ClientResilience("students-service",
+            new ClientResilience.Settings(Duration.ofMillis(200), 2, 50, 4, 4, Duration.ofMinutes(1),
+                    2, Duration.ofMillis(1), Duration.ofMillis(5)),
+            registry);
+
+    private StudentServiceClientAsynchronous clientRespondingWith(Duration delay, HttpStatus... statuses) {
+        return clientRespondingWith(resilience, registry, delay, statuses);
+    }
+
+    //students-service answering each call with the next status of the queue, then with the last one
+    private StudentServiceClientAsynchronous clientRespondingWith(ClientResilience resilience, SimpleMeterRegistry registry,
+                                                                  Duration delay, HttpStatus... statuses) {
+        Queue<HttpStatus> responses = new ConcurrentLinkedQueue<>(List.of(statuses));
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost/api/v1/students")
+                .filter(RequestDeadline.propagation())
+                .exchangeFunction(request -> {
+                    httpCalls.incrementAndGet();
+                    HttpStatus status = responses.size() > 1 ? responses.poll() : responses.peek();
+                    return Mono.delay(delay)
+                            .thenReturn(ClientResponse.create(status)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(status.is2xxSuccessful() ? STUDENT_JSON : "")
+                                    .build());
+                })
+                .build();
+        return new StudentServiceClientAsynchronous(webClient, 100, Duration.ofMinutes(10), Duration.ofMinutes(1),
+                0, Duration.ZERO, new ClientMetrics(registry, "students-service"), resilience, null, null);
+    }
+
+    private double rejections(String reason) {
+        return registry.get(ClientResilience.REJECTIONS).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    public void whenGetFailsOnceWith503_thenItIsRetried() {
+        //arrange
+        StudentServiceClientAsynchronous client = clientRespondingWith(Duration.ZERO,
+                HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK);
+
+        //act
+        Mono<StudentResponseModel> student = client.getStudentByStudentId(STUDENT_ID);
+
+        //assert
+        StepVerifier.create(student)
+                .expectNextMatches(s -> s.firstName().equals("Donna"))
+                .verifyComplete();
+        assertEquals(2, httpCalls.get());
+    }
+
+    @Test
+    public void whenGetIsNotFound_thenItIsNotRetried() {
+        StudentServiceClientAsynchronous client = clientRespondingWith(Duration.ZERO, HttpStatus.NOT_FOUND);
+
+        StepVerifier.create(client.getStudentByStudentId(STUDENT_ID))
+                .expectError(StudentNotFoundException.class)
+                .verify();
+        assertEquals(1, httpCalls.get());
+    }
+
+    @Test
+    public void whenBatchFailsWith503_thenItIsNotRetried() {
+        StudentServiceClientAsynchronous client = clientRespondingWith(Duration.ZERO, HttpStatus.SERVICE_UNAVAILABLE);
+
+        StepVerifier.create(client.getStudentsByStudentIds(List.of(STUDENT_ID)))
+                .expectError(ServiceUnavailableException.class)
+                .verify();
+        assertEquals(1, httpCalls.get());
+    }
+
+    @Test
+    public void whenServiceKeepsFailing_thenCircuitOpensAndCallsFailFast() {
+        //arrange
+        StudentServiceClientAsynchronous client = clientRespondingWith(Duration.ZERO, HttpStatus.INTERNAL_SERVER_ERROR);
+
+        //act
+        //3 attempts for the first GET, the first attempt of the second one opens the breaker and its retry is rejected
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(client.getStudentByStudentId(STUDENT_ID))
+                    .expectError()
+                    .verify();
+        }
+        int callsWhenOpened = httpCalls.get();
+        double rejectionsWhenOpened = rejections("circuit-open");
+
+        //assert
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker().getState());
+        assertEquals(1.0, registry.get(ClientResilience.CIRCUIT_BREAKER_STATE).gauge().value());
+        StepVerifier.create(client.getStudentByStudentId(STUDENT_ID))
+                .expectError(ServiceUnavailableException.class)
+                .verify();
+        assertEquals(4, callsWhenOpened);
+        assertEquals(callsWhenOpened, httpCalls.get());
+        assertEquals(rejectionsWhenOpened + 1, rejections("circuit-open"));
+    }
+
+    @Test
+    public void whenServiceGivesUpOnTheDeadline_thenItIsNeitherRetriedNorAFailure() {
+        //arrange
+        StudentServiceClientAsynchronous client = clientRespondingWith(Duration.ZERO, HttpStatus.GATEWAY_TIMEOUT);
+
+        //act
+        Mono<StudentResponseModel> student = client.getStudentByStudentId(STUDENT_ID)
+                .contextWrite(RequestDeadline.in(Duration.ofSeconds(2)));
+
+        //assert
+        StepVerifier.create(student)
+                .expectError(DeadlineExceededException.class)
+                .verify();
+        assertEquals(1, httpCalls.get());
+        assertEquals(0, resilience.getCircuitBreaker().getMetrics().getNumberOfFailedCalls());
+        assertEquals(0, resilience.getCircuitBreaker().getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    public void whenServiceIsTooSlow_thenServiceUnavailable() {
+        StudentServiceClientAsynchronous client = clientRespondingWith(Duration.ofSeconds(5), HttpStatus.OK);
+
+        StepVerifier.create(client.getStudentByStudentId(STUDENT_ID))
+                .expectError(ServiceUnavailableException.class)
+                .verify(Duration.ofSeconds(4));
+        //the first attempt and its 2 retries each timed out
+        assertEquals(3, httpCalls.get());
+    }
+
+    @Test
+    public void whenTooManyCallsInFlight_thenExtraCallIsRejected() {
+        //arrange
+        StudentServiceClientAsynchronous client = clientRespondingWith(Duration.ofMillis(100), HttpStatus.OK);
+
+        //act
+        //3 calls in flight together, one more than the bulkhead allows
+        var calls = Mono.zip(
+                client.getStudent(1).materialize(),
+                client.getStudent(2).materialize(),
+                client.getStudent(3).materialize());
+
+        //assert
+        StepVerifier.create(calls)
+                .expectNextMatches(t -> t.getT1().isOnNext() && t.getT2().isOnNext()
+                        && t.getT3().getThrowable() instanceof ServiceUnavailableException)
+                .verifyComplete();
+        assertEquals(2, httpCalls.get());
+        assertEquals(1.0, rejections("bulkhead-full"));
+    }
+
+    @Test
+    public void whenFanningOut1000Students_withDefaultSettings_thenNoCallIsRejected() {
+        //arrange
+        //the defaults of ServiceClientConfig, 200 calls in flight
+        SimpleMeterRegistry defaultRegistry = new SimpleMeterRegistry();
+        ClientResilience defaultResilience = new ClientResilience("students-service",
+                new ClientResilience.Settings(Duration.ofSeconds(2), 200, 50, 50, 20, Duration.ofSeconds(10),
+                        2, Duration.ofMillis(50), Duration.ofSeconds(1)),
+                defaultRegistry);
+        StudentServiceClientAsynchronous client = clientRespondingWith(defaultResilience, defaultRegistry,
+                Duration.ofMillis(50), HttpStatus.OK);
+
+        //act
+        Flux<StudentResponseModel> students = client.get1000StudentsAsync();
+
+        //assert
+        StepVerifier.create(students)
+                .expectNextCount(1000)
+                .verifyComplete();
+        assertEquals(1000, httpCalls.get());
+        assertEquals(0.0, defaultRegistry.get(ClientResilience.REJECTIONS).tag("reason", "bulkhead-full").counter().count());
+    }
+
+    //the defaults of /fetch, 256 calls in flight with 32 elements prefetched from each
+    @Test
+    public void whenFetchingStudents_withDefaultConcurrency_thenNoCallIsRejectedByTheBulkhead() {
+        //arrange
+        SimpleMeterRegistry defaultRegistry = new SimpleMeterRegistry();
+        ClientResilience defaultResilience = new ClientResilience("students-service",
+                new ClientResilience.Settings(Duration.ofSeconds(2), 200, 50, 50, 20, Duration.ofSeconds(10),
+                        2, Duration.ofMillis(50), Duration.ofSeconds(1)),
+                defaultRegistry);
+        StudentServiceClientAsynchronous client = clientRespondingWith(defaultResilience, defaultRegistry,
+                Duration.ofMillis(50), HttpStatus.OK);
+
+        //act
+        Flux<StudentResponseModel> students = client.getStudents(1000, 256, 32);
+
+        //assert
+        StepVerifier.create(students)
+                .expectNextCount(1000)
+                .verifyComplete();
+        assertEquals(1000, httpCalls.get());
+        assertEquals(0.0, defaultRegistry.get(ClientResilience.REJECTIONS).tag("reason", "bulkhead-full").counter().count());
+    }
+
+    @Test
+    public void whenFetchingStudentsByRowRange_withDefaultConcurrency_thenNoCallIsRejectedByTheBulkhead() {
+        //arrange
+        SimpleMeterRegistry defaultRegistry = new SimpleMeterRegistry();
+        ClientResilience defaultResilience = new ClientResilience("students-service",
+                new ClientResilience.Settings(Duration.ofSeconds(2), 200, 50, 50, 20, Duration.ofSeconds(10),
+                        2, Duration.ofMillis(50), Duration.ofSeconds(1)),
+                defaultRegistry);
+        StudentServiceClientAsynchronous client = clientRespondingWith(defaultResilience, defaultRegistry,
+                Duration.ofMillis(50), HttpStatus.OK);
+
+        //act
+        //one student per /row/range call, 1000 calls
+        Flux<StudentResponseModel> students = client.getStudentsByRowRange(1000, 1, 256, 32);
+
+        //assert
+        StepVerifier.create(students)
+                .expectNextCount(1000)
+                .verifyComplete();
+        assertEquals(1000, httpCalls.get());
+        assertEquals(0.0, defaultRegistry.get(ClientResilience.REJECTIONS).tag("reason", "bulkhead-full").counter().count());
+    }
+
+    //past ~85ms, 236 calls queued behind a limit of 20 would not all get a slot within the 1s of queue wait
+    @Test
+    public void whenFanningOut1000SlowStudents_withDefaultConcurrencyLimit_thenNoCallIsRejected() {
+        //arrange
+        SimpleMeterRegistry defaultRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("students-service",
+                new AdaptiveConcurrencyLimiter.Settings(20, 1, 200, 0.9, 2.0, 1000, Duration.ofSeconds(1)),
+                defaultRegistry);
+        ClientResilience defaultResilience = new ClientResilience("students-service",
+                new ClientResilience.Settings(Duration.ofSeconds(2), 200, 50, 50, 20, Duration.ofSeconds(10),
+                        2, Duration.ofMillis(50), Duration.ofSeconds(1)),
+                limiter, defaultRegistry);
+        StudentServiceClientAsynchronous client = clientRespondingWith(defaultResilience, defaultRegistry,
+                Duration.ofMillis(100), HttpStatus.OK);
+
+        //act
+        Flux<StudentResponseModel> students = client.get1000StudentsAsync();
+
+        //assert
+        StepVerifier.create(students)
+                .expectNextCount(1000)
+                .expectComplete()
+                .verify(Duration.ofSeconds(30));
+        assertEquals(1000, httpCalls.get());
+        assertEquals(0.0, defaultRegistry.get(ClientResilience.REJECTIONS).tag("reason", "limit-exceeded").counter().count());
+    }
+
+    @Test
+    public void whenFetchingSlowStudents_withDefaultConcurrencyAndLimit_thenNoCallIsRejected() {
+        //arrange
+        SimpleMeterRegistry defaultRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("students-service",
+                new AdaptiveConcurrencyLimiter.Settings(20, 1, 200, 0.9, 2.0, 1000, Duration.ofSeconds(1)),
+                defaultRegistry);
+        ClientResilience defaultResilience = new ClientResilience("students-service",
+                new ClientResilience.Settings(Duration.ofSeconds(2), 200, 50, 50, 20, Duration.ofSeconds(10),
+                        2, Duration.ofMillis(50), Duration.ofSeconds(1)),
+                limiter, defaultRegistry);
+        StudentServiceClientAsynchronous client = clientRespondingWith(defaultResilience, defaultRegistry,
+                Duration.ofMillis(100), HttpStatus.OK);
+
+        //act
+        Flux<StudentResponseModel> students = client.getStudents(1000, 256, 32)
+                .concatWith(client.getStudentsByRowRange(1000, 1, 256, 32));
+
+        //assert
+        StepVerifier.create(students)
+                .expectNextCount(2000)
+                .expectComplete()
+                .verify(Duration.ofSeconds(30));
+        assertEquals(2000, httpCalls.get());
+        assertEquals(0.0, defaultRegistry.get(ClientResilience.REJECTIONS).tag("reason", "limit-exceeded").counter().count());
+    }
+}
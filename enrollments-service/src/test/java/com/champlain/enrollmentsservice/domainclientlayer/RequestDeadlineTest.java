@@ -0,0 +1,158 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDeadlineTest {
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+    private final AtomicReference<String> header = new AtomicReference<>();
+
+    private WebClient webClientAnsweringAfter(Duration latency, AtomicBoolean cancelled) {
+        return webClientAnswering(HttpStatus.OK, latency, cancelled);
+    }
+
+    private WebClient webClientAnswering(HttpStatus status, Duration latency, AtomicBoolean cancelled) {
+        return WebClient.builder()
+                .baseUrl("http://localhost/api/v1/students")
+                .filter(RequestDeadline.propagation())
+                .exchangeFunction(request -> {
+                    exchanges.incrementAndGet();
+                    header.set(request.headers().getFirst(RequestDeadline.HEADER));
+                    return Mono.delay(latency)
+                            .map(tick -> ClientResponse.create(status).build())
+                            .doOnCancel(() -> cancelled.set(true));
+                })
+                .build();
+    }
+
+    private static Mono<HttpStatus> get(WebClient webClient) {
+        return webClient.get().retrieve().toBodilessEntity().map(entity -> HttpStatus.valueOf(entity.getStatusCode().value()));
+    }
+
+    @Test
+    public void whenCallWithinDeadline_thenTimeLeftIsSent() {
+        //arrange
+        WebClient webClient = webClientAnsweringAfter(Duration.ZERO, new AtomicBoolean());
+
+        //act
+        Mono<HttpStatus> status = get(webClient).contextWrite(RequestDeadline.in(Duration.ofSeconds(2)));
+
+        //assert
+        StepVerifier.create(status)
+                .expectNext(HttpStatus.OK)
+                .verifyComplete();
+        long left = Long.parseLong(header.get());
+        assertTrue(left > 0 && left <= 2000, "left " + left);
+    }
+
+    @Test
+    public void whenNoDeadline_thenNoHeaderIsSent() {
+        WebClient webClient = webClientAnsweringAfter(Duration.ZERO, new AtomicBoolean());
+
+        StepVerifier.create(get(webClient))
+                .expectNext(HttpStatus.OK)
+                .verifyComplete();
+        assertNull(header.get());
+    }
+
+    @Test
+    public void whenDeadlineAlreadyPassed_thenCallIsNotSent() {
+        //arrange
+        WebClient webClient = webClientAnsweringAfter(Duration.ZERO, new AtomicBoolean());
+
+        //act
+        Mono<HttpStatus> status = get(webClient).contextWrite(RequestDeadline.in(Duration.ofMillis(-1)));
+
+        //assert
+        StepVerifier.create(status)
+                .expectError(DeadlineExceededException.class)
+                .verify();
+        assertEquals(0, exchanges.get());
+    }
+
+    @Test
+    public void whenCallRunsPastDeadline_thenItIsCancelled() {
+        //arrange
+        AtomicBoolean cancelled = new AtomicBoolean();
+        WebClient webClient = webClientAnsweringAfter(Duration.ofSeconds(5), cancelled);
+
+        //act
+        Mono<HttpStatus> status = get(webClient).contextWrite(RequestDeadline.in(Duration.ofMillis(100)));
+
+        //assert
+        StepVerifier.create(status)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(2));
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    public void whenServiceGivesUpOnTheDeadline_thenDeadlineExceeded() {
+        //arrange
+        WebClient webClient = webClientAnswering(HttpStatus.GATEWAY_TIMEOUT, Duration.ZERO, new AtomicBoolean());
+
+        //act
+        Mono<HttpStatus> status = get(webClient).contextWrite(RequestDeadline.in(Duration.ofSeconds(2)));
+
+        //assert
+        StepVerifier.create(status)
+                .expectError(DeadlineExceededException.class)
+                .verify();
+    }
+
+    @Test
+    public void whenServiceAnswers504WithoutADeadline_thenItIsAnError504() {
+        //arrange
+        WebClient webClient = webClientAnswering(HttpStatus.GATEWAY_TIMEOUT, Duration.ZERO, new AtomicBoolean());
+
+        //act
+        Mono<HttpStatus> status = get(webClient);
+
+        //assert
+        StepVerifier.create(status)
+                .expectError(WebClientResponseException.GatewayTimeout.class)
+                .verify();
+    }
+
+    @Test
+    public void whenStreamRunsPastDeadline_thenItIsCancelled() {
+        //arrange
+        AtomicBoolean cancelled = new AtomicBoolean();
+        //an element every 40ms, each well within the deadline on its own
+        Flux<Long> stream = Flux.interval(Duration.ofMillis(40)).doOnCancel(() -> cancelled.set(true));
+
+        //act
+        Flux<Long> limited = RequestDeadline.limit(stream).contextWrite(RequestDeadline.in(Duration.ofMillis(150)));
+
+        //assert
+        StepVerifier.create(limited)
+                .thenConsumeWhile(tick -> true)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(2));
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    public void whenHeaderIsNotANumber_thenItIsIgnored() {
+        assertNull(RequestDeadline.parse("soon"));
+        assertNull(RequestDeadline.parse(null));
+        assertEquals(Duration.ofMillis(250), RequestDeadline.parse(" 250 "));
+    }
+}
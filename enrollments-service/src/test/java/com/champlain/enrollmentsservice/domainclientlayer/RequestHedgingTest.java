@@ -0,0 +1,103 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestHedgingTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+
+    private RequestHedging hedging(double budget) {
+        return new RequestHedging("students-service",
+                new RequestHedging.Settings(0.95, Duration.ofMillis(20), budget, 100), registry);
+    }
+
+    //answers "fast" at once, except the attempts numbered slowAttempt which answer "slow" after a second
+    private Mono<String> call(int slowAttempt) {
+        return Mono.defer(() -> attempts.incrementAndGet() == slowAttempt
+                ? Mono.delay(Duration.ofSeconds(1)).thenReturn("slow").doOnCancel(cancelled::incrementAndGet)
+                : Mono.just("fast"));
+    }
+
+    private void warmUp(RequestHedging hedging) {
+        for (int i = 0; i < 50; i++) {
+            hedging.hedge(call(-1)).block();
+        }
+    }
+
+    private double hedges(String result) {
+        return registry.get(RequestHedging.HEDGES).tag("result", result).counter().count();
+    }
+
+    @Test
+    public void whenTooFewCallsAnswered_thenNoHedging() {
+        RequestHedging hedging = hedging(1);
+
+        StepVerifier.create(hedging.hedge(call(1)))
+                .expectNext("slow")
+                .verifyComplete();
+
+        assertNull(hedging.getDelay());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void whenCallIsSlowerThanDelay_thenHedgeAnswersAndSlowCallIsCancelled() {
+        //arrange
+        RequestHedging hedging = hedging(0.1);
+        warmUp(hedging);
+
+        //act
+        Mono<String> hedged = hedging.hedge(call(51));
+
+        //assert
+        assertEquals(Duration.ofMillis(20), hedging.getDelay());
+        StepVerifier.create(hedged)
+                .expectNext("fast")
+                .verifyComplete();
+        assertEquals(52, attempts.get());
+        assertEquals(1, cancelled.get());
+        assertEquals(1.0, hedges("sent"));
+        assertEquals(1.0, hedges("won"));
+    }
+
+    @Test
+    public void whenCallIsFasterThanDelay_thenNoHedgeIsSent() {
+        RequestHedging hedging = hedging(0.1);
+        warmUp(hedging);
+
+        StepVerifier.create(hedging.hedge(call(-1)))
+                .expectNext("fast")
+                .verifyComplete();
+
+        assertEquals(51, attempts.get());
+        assertEquals(0.0, hedges("sent"));
+    }
+
+    @Test
+    public void whenBudgetIsSpent_thenSlowCallIsNotHedged() {
+        //arrange
+        RequestHedging hedging = hedging(0);
+        warmUp(hedging);
+
+        //act
+        Mono<String> hedged = hedging.hedge(call(51));
+
+        //assert
+        StepVerifier.create(hedged)
+                .expectNext("slow")
+                .verifyComplete();
+        assertEquals(51, attempts.get());
+        assertEquals(1.0, hedges("budget-exhausted"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.champlain.enrollmentsservice.domainclientlayer;
+
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ServiceClientTransportTest {
+
+    private static final StudentResponseModel STUDENT = new StudentResponseModel(
+            "c3540a89-cb47-4c96-888e-ff96708db4d8", "Donna", "Hornsby", "History", "stuff");
+
+    private final List<String> protocols = new CopyOnWriteArrayList<>();
+    private final List<String> accepts = new CopyOnWriteArrayList<>();
+    private DisposableServer server;
+
+    //only speaks h2c with prior knowledge and only answers in Smile
+    private String startSmileOnlyH2cServer() throws Exception {
+        byte[] student = new SmileMapper().writeValueAsBytes(STUDENT);
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .protocol(HttpProtocol.H2C)
+                .route(routes -> routes.get("/api/v1/students/{studentId}", (request, response) -> {
+                    protocols.add(request.protocol());
+                    accepts.add(request.requestHeaders().get(HttpHeaderNames.ACCEPT));
+                    return response.header(HttpHeaderNames.CONTENT_TYPE, "application/x-jackson-smile")
+                            .sendByteArray(Mono.just(student));
+                }))
+                .bindNow();
+        return "http://localhost:" + server.port() + "/api/v1/students";
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    public void whenHttp2AndSmile_thenLookupIsSentOverH2cAndSmileIsDecoded() throws Exception {
+        //arrange
+        ServiceClientTransport transport = new ServiceClientTransport(true, true, ServiceClientTransport.Codec.SMILE);
+
+        //act
+        Mono<StudentResponseModel> lookup = transport.webClientBuilder(startSmileOnlyH2cServer()).build()
+                .get()
+                .uri("/{studentId}", STUDENT.studentId())
+                .retrieve()
+                .bodyToMono(StudentResponseModel.class);
+
+        //assert
+        StepVerifier.create(lookup)
+                .expectNext(STUDENT)
+                .verifyComplete();
+        assertEquals(List.of("HTTP/2.0"), protocols);
+        assertEquals(List.of("application/x-jackson-smile, application/json"), accepts);
+    }
+}
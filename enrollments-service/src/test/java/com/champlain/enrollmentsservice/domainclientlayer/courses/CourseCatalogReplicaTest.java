@@ -0,0 +1,118 @@
+package com.champlain.enrollmentsservice.domainclientlayer.courses;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseCatalogReplicaTest {
+
+    private final CourseResponseModel course1 = new CourseResponseModel(
+            "9a29fff7-564a-4cc9-8fe1-36f6ca9bc223", "trs-075", "Web Services", 90, 2.0, "Math");
+    private final CourseResponseModel course2 = new CourseResponseModel(
+            "8d764f78-8468-4769-b643-10cde392fbde", "xud-857", "Waves", 60, 2.5, "Physics");
+
+    private final Sinks.Many<CourseChangeEvent> changes = Sinks.many().multicast().directBestEffort();
+
+    private final CourseChangeEvent heartbeat = new CourseChangeEvent(CourseChangeEvent.ChangeType.HEARTBEAT, null, null);
+
+    private CourseCatalogReplica replica;
+
+    @AfterEach
+    public void tearDown() {
+        replica.stop();
+    }
+
+    @Test
+    public void whenNotStarted_thenReplicaIsNotReady() {
+        replica = new CourseCatalogReplica(() -> Flux.just(course1), changes::asFlux, Duration.ofSeconds(30));
+
+        assertFalse(replica.isReady());
+        assertTrue(replica.find(course1.courseId()).isEmpty());
+    }
+
+    @Test
+    public void whenBootstrapped_thenCoursesAreLocalReads() {
+        replica = new CourseCatalogReplica(() -> Flux.just(course1, course2), changes::asFlux, Duration.ofSeconds(30));
+
+        replica.start();
+        changes.tryEmitNext(heartbeat);
+
+        assertTrue(replica.isReady());
+        assertEquals(2, replica.size());
+        assertEquals(course1, replica.find(course1.courseId()).orElseThrow());
+    }
+
+    @Test
+    public void whenChangesArePublished_thenReplicaFollowsThem() {
+        replica = new CourseCatalogReplica(() -> Flux.just(course1), changes::asFlux, Duration.ofSeconds(30));
+        replica.start();
+        changes.tryEmitNext(heartbeat);
+
+        CourseResponseModel renamed = new CourseResponseModel(
+                course1.courseId(), "trs-075", "Web Services 2", 90, 2.0, "Math");
+        changes.tryEmitNext(new CourseChangeEvent(CourseChangeEvent.ChangeType.UPDATED, renamed.courseId(), renamed));
+        changes.tryEmitNext(new CourseChangeEvent(CourseChangeEvent.ChangeType.ADDED, course2.courseId(), course2));
+
+        assertEquals("Web Services 2", replica.find(course1.courseId()).orElseThrow().courseName());
+        assertTrue(replica.find(course2.courseId()).isPresent());
+
+        changes.tryEmitNext(new CourseChangeEvent(CourseChangeEvent.ChangeType.DELETED, course2.courseId(), null));
+
+        assertTrue(replica.find(course2.courseId()).isEmpty());
+    }
+
+    @Test
+    public void whenChangeArrivesBeforeSnapshot_thenChangeWins() {
+        Sinks.One<Void> snapshotGate = Sinks.one();
+        replica = new CourseCatalogReplica(
+                () -> snapshotGate.asMono().thenMany(Flux.just(course1, course2)),
+                changes::asFlux,
+                Duration.ofSeconds(30));
+        replica.start();
+        changes.tryEmitNext(heartbeat);
+
+        changes.tryEmitNext(new CourseChangeEvent(CourseChangeEvent.ChangeType.DELETED, course2.courseId(), null));
+        snapshotGate.tryEmitEmpty();
+
+        assertTrue(replica.isReady());
+        assertTrue(replica.find(course1.courseId()).isPresent());
+        assertTrue(replica.find(course2.courseId()).isEmpty());
+    }
+
+    @Test
+    public void whenFeedIsNotLiveYet_thenSnapshotIsNotRead() {
+        AtomicInteger snapshotReads = new AtomicInteger();
+        replica = new CourseCatalogReplica(
+                () -> Flux.defer(() -> {
+                    snapshotReads.incrementAndGet();
+                    return Flux.just(course1);
+                }),
+                changes::asFlux,
+                Duration.ofSeconds(30));
+        replica.start();
+
+        assertEquals(0, snapshotReads.get());
+        assertFalse(replica.isReady());
+
+        changes.tryEmitNext(heartbeat);
+
+        assertEquals(1, snapshotReads.get());
+        assertTrue(replica.isReady());
+    }
+
+    @Test
+    public void whenReplicaIsStale_thenLookupsFallThrough() {
+        replica = new CourseCatalogReplica(() -> Flux.just(course1), changes::asFlux, Duration.ZERO);
+        replica.start();
+        changes.tryEmitNext(heartbeat);
+
+        assertFalse(replica.isReady());
+        assertTrue(replica.find(course1.courseId()).isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package com.champlain.enrollmentsservice.domainclientlayer.courses;
+
+import com.champlain.enrollmentsservice.domainclientlayer.ClientMetrics;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.CourseNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CourseServiceClientTest {
+
+    private static final String COURSE_ID = "9a29fff7-564a-4cc9-8fe1-36f6ca9bc223";
+    private static final String COURSE_JSON = """
+            {"courseId":"9a29fff7-564a-4cc9-8fe1-36f6ca9bc223","courseNumber":"N45-LA","courseName":"Nursing",\
+            "numHours":60,"numCredits":3.0,"department":"Nursing"}
+            """;
+    private static final String E_TAG = "\"v1\"";
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+    private CourseServiceClient clientRespondingWith(Function<ClientRequest, ClientResponse> responder) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost/api/v1/courses")
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(responder.apply(request));
+                })
+                .build();
+        return new CourseServiceClient(webClient, new ClientMetrics(new SimpleMeterRegistry(), "courses-service"));
+    }
+
+    private static ClientResponse course(String eTag) {
+        ClientResponse.Builder response = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(COURSE_JSON);
+        if (eTag != null) {
+            response.header(HttpHeaders.ETAG, eTag);
+        }
+        return response.build();
+    }
+
+    @Test
+    public void whenCourseIsUnchanged_thenSecondFetchIsConditionalAndReusesKnownCourse() {
+        //arrange
+        CourseServiceClient client = clientRespondingWith(request ->
+                request.headers().getIfNoneMatch().contains(E_TAG)
+                        ? ClientResponse.create(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, E_TAG).build()
+                        : course(E_TAG));
+
+        //act
+        CourseResponseModel first = client.getCourseByCourseId(COURSE_ID).block();
+        CourseResponseModel second = client.getCourseByCourseId(COURSE_ID).block();
+
+        //assert
+        assertEquals("Nursing", first.courseName());
+        assertEquals(first, second);
+        assertEquals(2, requests.size());
+        assertEquals(List.of(), requests.get(0).headers().getIfNoneMatch());
+        assertEquals(List.of(E_TAG), requests.get(1).headers().getIfNoneMatch());
+    }
+
+    @Test
+    public void whenCourseHasNoETag_thenNextFetchIsNotConditional() {
+        //arrange
+        CourseServiceClient client = clientRespondingWith(request -> course(null));
+
+        //act
+        client.getCourseByCourseId(COURSE_ID).block();
+        client.getCourseByCourseId(COURSE_ID).block();
+
+        //assert
+        assertEquals(2, requests.size());
+        assertNull(requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    public void whenCourseIsDeleted_thenKnownCourseIsForgotten() {
+        //arrange
+        List<ClientResponse> responses = new CopyOnWriteArrayList<>(List.of(
+                course(E_TAG),
+                ClientResponse.create(HttpStatus.NOT_FOUND).build(),
+                course(E_TAG)));
+        CourseServiceClient client = clientRespondingWith(request -> responses.remove(0));
+
+        //act and assert
+        StepVerifier.create(client.getCourseByCourseId(COURSE_ID))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(client.getCourseByCourseId(COURSE_ID))
+                .expectError(CourseNotFoundException.class)
+                .verify();
+        StepVerifier.create(client.getCourseByCourseId(COURSE_ID))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(3, requests.size());
+        assertNull(requests.get(2).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+}
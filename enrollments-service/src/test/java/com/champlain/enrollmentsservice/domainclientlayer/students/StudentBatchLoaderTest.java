@@ -0,0 +1,79 @@
+package com.champlain.enrollmentsservice.domainclientlayer.students;
+
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidStudentIdException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StudentBatchLoaderTest {
+
+    private static final String STUDENT_ID_1 = "c3540a89-cb47-4c96-888e-ff96708db4d8";
+    private static final String STUDENT_ID_2 = "1f538db7-320a-4415-bad4-e1d44518b1ff";
+    private static final String UNKNOWN_STUDENT_ID = "5651e83d-ef7e-470a-a02b-685b1f445d3b";
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    private Flux<StudentResponseModel> batchLookup(List<String> studentIds) {
+        batches.add(studentIds);
+        return Flux.fromIterable(studentIds)
+                .filter(id -> !id.equals(UNKNOWN_STUDENT_ID))
+                .map(id -> new StudentResponseModel(id, "first", "last", "program", "stuff"));
+    }
+
+    @Test
+    public void whenLookupsArriveInSameWindow_thenOneBatchCallIsMade() {
+        StudentBatchLoader loader = new StudentBatchLoader(this::batchLookup, 10, Duration.ofMillis(50));
+
+        StepVerifier.create(Mono.zip(
+                        loader.load(STUDENT_ID_1),
+                        loader.load(STUDENT_ID_2),
+                        loader.load(STUDENT_ID_1)))
+                .expectNextMatches(t -> t.getT1().studentId().equals(STUDENT_ID_1)
+                        && t.getT2().studentId().equals(STUDENT_ID_2)
+                        && t.getT3().studentId().equals(STUDENT_ID_1))
+                .verifyComplete();
+
+        assertEquals(1, batches.size());
+        assertEquals(List.of(STUDENT_ID_1, STUDENT_ID_2), batches.get(0));
+    }
+
+    @Test
+    public void whenBatchIsFull_thenItIsDispatchedBeforeTheWindowEnds() {
+        StudentBatchLoader loader = new StudentBatchLoader(this::batchLookup, 2, Duration.ofMinutes(1));
+
+        StepVerifier.create(Mono.zip(loader.load(STUDENT_ID_1), loader.load(STUDENT_ID_2)))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void whenStudentIsMissingFromBatch_thenThrowStudentNotFoundException() {
+        StudentBatchLoader loader = new StudentBatchLoader(this::batchLookup, 10, Duration.ofMillis(10));
+
+        StepVerifier.create(loader.load(UNKNOWN_STUDENT_ID))
+                .expectError(StudentNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    public void whenStudentIdIsInvalid_thenThrowInvalidStudentIdExceptionWithoutBatchCall() {
+        StudentBatchLoader loader = new StudentBatchLoader(this::batchLookup, 10, Duration.ofMillis(10));
+
+        StepVerifier.create(loader.load("Student123"))
+                .expectError(InvalidStudentIdException.class)
+                .verify();
+
+        assertEquals(0, batches.size());
+    }
+}
@@ -0,0 +1,238 @@
+package com.champlain.enrollmentsservice.domainclientlayer.students;
+
+import com.champlain.enrollmentsservice.domainclientlayer.RequestDeadline;
+import com.champlain.enrollmentsservice.domainclientlayer.ClientMetrics;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.DeadlineExceededException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidInputException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StudentServiceClientAsynchronousTest {
+
+    private static final String STUDENT_ID = "c3540a89-cb47-4c96-888e-ff96708db4d8";
+    private static final String STUDENT_JSON = """
+            {"studentId":"c3540a89-cb47-4c96-888e-ff96708db4d8","firstName":"Donna","lastName":"Hornsby","program":"History","stuff":"stuff"}
+            """;
+
+    private final AtomicInteger httpCalls = new AtomicInteger();
+
+    private StudentServiceClientAsynchronous clientRespondingWith(HttpStatus status, Duration delay) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost/api/v1/students")
+                .exchangeFunction(request -> Mono.delay(delay)
+                        .doOnSubscribe(s -> httpCalls.incrementAndGet())
+                        .thenReturn(ClientResponse.create(status)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body(status.is2xxSuccessful() ? STUDENT_JSON : "")
+                                .build()))
+                .build();
+        return new StudentServiceClientAsynchronous(webClient, 100, Duration.ofMinutes(10), Duration.ofMinutes(1),
+                0, Duration.ZERO, new ClientMetrics(new SimpleMeterRegistry(), "students-service"));
+    }
+
+    //the studentIds of a POST /batch
+    private static Mono<List<String>> batchOf(ClientRequest request) {
+        MockClientHttpRequest body = new MockClientHttpRequest(request.method(), request.url());
+        return request.body().insert(body, new BodyInserter.Context() {
+                    @Override
+                    public List<HttpMessageWriter<?>> messageWriters() {
+                        return ExchangeStrategies.withDefaults().messageWriters();
+                    }
+
+                    @Override
+                    public Optional<ServerHttpRequest> serverRequest() {
+                        return Optional.empty();
+                    }
+
+                    @Override
+                    public Map<String, Object> hints() {
+                        return Map.of();
+                    }
+                })
+                .then(body.getBodyAsString())
+                .map(json -> {
+                    try {
+                        return List.of(new ObjectMapper().readValue(json, String[].class));
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                });
+    }
+
+    @Test
+    public void whenGetStudentByStudentIdTwice_thenSecondCallIsServedFromCache() {
+        StudentServiceClientAsynchronous client = clientRespondingWith(HttpStatus.OK, Duration.ZERO);
+
+        StepVerifier.create(client.getStudentByStudentId(STUDENT_ID))
+                .expectNextMatches(s -> s.firstName().equals("Donna"))
+                .verifyComplete();
+        StepVerifier.create(client.getStudentByStudentId(STUDENT_ID))
+                .expectNextMatches(s -> s.firstName().equals("Donna"))
+                .verifyComplete();
+
+        assertEquals(1, httpCalls.get());
+        assertEquals(1, client.getStudentCache().synchronous().stats().hitCount());
+    }
+
+    @Test
+    public void whenConcurrentMissesForSameStudentId_thenOnlyOneRequestIsSent() {
+        StudentServiceClientAsynchronous client = clientRespondingWith(HttpStatus.OK, Duration.ofMillis(100));
+
+        StepVerifier.create(Mono.zip(client.getStudentByStudentId(STUDENT_ID), client.getStudentByStudentId(STUDENT_ID)))
+                .expectNextMatches(t -> t.getT1().equals(t.getT2()))
+                .verifyComplete();
+
+        assertEquals(1, httpCalls.get());
+    }
+
+    @Test
+    public void whenStudentNotFound_thenErrorIsNotCached() {
+        StudentServiceClientAsynchronous client = clientRespondingWith(HttpStatus.NOT_FOUND, Duration.ZERO);
+
+        StepVerifier.create(client.getStudentByStudentId(STUDENT_ID))
+                .expectError(StudentNotFoundException.class)
+                .verify();
+        StepVerifier.create(client.getStudentByStudentId(STUDENT_ID))
+                .expectError(StudentNotFoundException.class)
+                .verify();
+
+        assertEquals(2, httpCalls.get());
+    }
+
+    @Test
+    public void whenGetStudentsByRowRange_thenOneCallPerChunkCoversEveryRowOnce() {
+        List<String> ranges = new CopyOnWriteArrayList<>();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost/api/v1/students")
+                .exchangeFunction(request -> {
+                    ranges.add(request.url().getQuery());
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("[" + STUDENT_JSON + "]")
+                            .build());
+                })
+                .build();
+        StudentServiceClientAsynchronous client = new StudentServiceClientAsynchronous(webClient,
+                new ClientMetrics(new SimpleMeterRegistry(), "students-service"));
+
+        StepVerifier.create(client.getStudentsByRowRange(2500, 1000, 2, 8))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        assertEquals(List.of("from=1&to=1000", "from=1001&to=2000", "from=2001&to=2500"), ranges.stream().sorted().toList());
+    }
+
+    @Test
+    public void whenDeadlinePassesDuringRowRanges_thenCallsInFlightAreCancelled() {
+        //arrange
+        AtomicInteger cancelled = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost/api/v1/students")
+                .filter(RequestDeadline.propagation())
+                .exchangeFunction(request -> Mono.<ClientResponse>never()
+                        .doOnSubscribe(s -> httpCalls.incrementAndGet())
+                        .doOnCancel(cancelled::incrementAndGet))
+                .build();
+        StudentServiceClientAsynchronous client = new StudentServiceClientAsynchronous(webClient,
+                new ClientMetrics(new SimpleMeterRegistry(), "students-service"));
+
+        //act
+        Flux<StudentResponseModel> students = client.getStudentsByRowRange(2500, 1000, 2, 8)
+                .contextWrite(RequestDeadline.in(Duration.ofMillis(100)));
+
+        //assert
+        StepVerifier.create(students)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(2, httpCalls.get());
+        assertEquals(2, cancelled.get());
+    }
+
+    @Test
+    public void whenCallersOfASharedLoadHaveDifferentDeadlines_thenEachOneWaitsUntilItsOwn() {
+        //arrange
+        StudentServiceClientAsynchronous client = clientRespondingWith(HttpStatus.OK, Duration.ofMillis(300));
+
+        //act
+        //both subscribed together, the second caller joins the load the first one started
+        Mono<Tuple2<Signal<StudentResponseModel>, Signal<StudentResponseModel>>> callers = Mono.zip(
+                client.getStudentByStudentId(STUDENT_ID).contextWrite(RequestDeadline.in(Duration.ofMillis(100))).materialize(),
+                client.getStudentByStudentId(STUDENT_ID).contextWrite(RequestDeadline.in(Duration.ofSeconds(2))).materialize());
+
+        //assert
+        StepVerifier.create(callers)
+                .expectNextMatches(t -> t.getT1().getThrowable() instanceof DeadlineExceededException
+                        && t.getT2().isOnNext() && t.getT2().get().firstName().equals("Donna"))
+                .verifyComplete();
+        assertEquals(1, httpCalls.get());
+    }
+
+    @Test
+    public void whenBatchMaxSizeIsOverTheCap_thenBatchesAreCapped() {
+        //arrange
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost/api/v1/students")
+                .exchangeFunction(request -> batchOf(request)
+                        .doOnNext(studentIds -> batchSizes.add(studentIds.size()))
+                        .thenReturn(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body("[]")
+                                .build()))
+                .build();
+        StudentServiceClientAsynchronous client = new StudentServiceClientAsynchronous(webClient, 10_000,
+                Duration.ofMinutes(10), Duration.ofMinutes(1), 5000, Duration.ofMillis(200),
+                new ClientMetrics(new SimpleMeterRegistry(), "students-service"));
+
+        //act
+        Flux<StudentResponseModel> lookups = Flux.range(0, 1500)
+                .flatMap(i -> client.getStudentByStudentId(UUID.randomUUID().toString())
+                        .onErrorResume(StudentNotFoundException.class, ex -> Mono.empty()), 1500);
+
+        //assert
+        StepVerifier.create(lookups).expectComplete().verify(Duration.ofSeconds(5));
+        assertEquals(List.of(500, 1000), batchSizes.stream().sorted().toList());
+    }
+
+    @Test
+    public void whenBatchIsRejected_thenInvalidInput() {
+        //arrange
+        StudentServiceClientAsynchronous client = clientRespondingWith(HttpStatus.UNPROCESSABLE_ENTITY, Duration.ZERO);
+
+        //act
+        Flux<StudentResponseModel> result = client.getStudentsByStudentIds(List.of(STUDENT_ID));
+
+        //assert
+        StepVerifier.create(result)
+                .expectError(InvalidInputException.class)
+                .verify();
+    }
+}
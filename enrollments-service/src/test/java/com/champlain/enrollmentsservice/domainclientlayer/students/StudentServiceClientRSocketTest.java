@@ -0,0 +1,134 @@
+package com.champlain.enrollmentsservice.domainclientlayer.students;
+
+import com.champlain.enrollmentsservice.domainclientlayer.ClientMetrics;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidStudentIdException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.exceptions.InvalidException;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudentServiceClientRSocketTest {
+
+    private static final String STUDENT_ID = "c3540a89-cb47-4c96-888e-ff96708db4d8";
+    private static final String UNKNOWN_STUDENT_ID = "00000000-0000-4000-8000-000000000000";
+
+    private final AtomicLong requested = new AtomicLong();
+    private CloseableChannel server;
+    private StudentServiceClientRSocket client;
+
+    //students-service's routes, answering like StudentRSocketController does
+    @Controller
+    public class StubStudentsController {
+
+        @MessageMapping("students.{studentId}")
+        public Mono<StudentResponseModel> getStudentByStudentId(@DestinationVariable String studentId) {
+            if (studentId.length() != 36) {
+                return Mono.error(new InvalidException("Invalid studentId: " + studentId));
+            }
+            return studentId.equals(STUDENT_ID) ? Mono.just(student(studentId)) : Mono.empty();
+        }
+
+        @MessageMapping("students")
+        public Flux<StudentResponseModel> getStudents() {
+            return Flux.range(0, 10_000)
+                    .map(i -> student(String.valueOf(i)))
+                    .doOnRequest(requested::addAndGet);
+        }
+
+        @MessageMapping("students.batch")
+        public Flux<StudentResponseModel> getStudentsByStudentIds(Flux<String> studentIds) {
+            return studentIds.filter(STUDENT_ID::equals).map(StudentServiceClientRSocketTest::student);
+        }
+    }
+
+    @BeforeEach
+    public void startServer() {
+        RSocketStrategies strategies = RSocketStrategies.builder()
+                .encoders(encoders -> encoders.add(new Jackson2CborEncoder()))
+                .decoders(decoders -> decoders.add(new Jackson2CborDecoder()))
+                .build();
+        RSocketMessageHandler handler = new RSocketMessageHandler();
+        handler.setHandlers(List.of(new StubStudentsController()));
+        handler.setRSocketStrategies(strategies);
+        handler.afterPropertiesSet();
+        server = RSocketServer.create(handler.responder())
+                .bind(TcpServerTransport.create("localhost", 0))
+                .block();
+
+        RSocketRequester requester = RSocketRequester.builder()
+                .rsocketStrategies(strategies)
+                .tcp("localhost", server.address().getPort());
+        client = new StudentServiceClientRSocket(requester, new ClientMetrics(new SimpleMeterRegistry(), "students-service"));
+    }
+
+    @AfterEach
+    public void stopServer() {
+        client.close();
+        server.dispose();
+    }
+
+    private static StudentResponseModel student(String studentId) {
+        return new StudentResponseModel(studentId, "Donna", "Hornsby", "History", "stuff");
+    }
+
+    @Test
+    public void whenStudentExists_thenRequestResponseReturnsIt() {
+        StepVerifier.create(client.getStudentByStudentId(STUDENT_ID))
+                .expectNext(student(STUDENT_ID))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenStudentIsUnknown_thenStudentNotFound() {
+        StepVerifier.create(client.getStudentByStudentId(UNKNOWN_STUDENT_ID))
+                .expectError(StudentNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    public void whenStudentIdIsInvalid_thenInvalidStudentId() {
+        StepVerifier.create(client.getStudentByStudentId("not-a-student-id"))
+                .expectError(InvalidStudentIdException.class)
+                .verify();
+    }
+
+    @Test
+    public void whenBatchOfStudentIds_thenOnlyKnownStudentsAreReturned() {
+        StepVerifier.create(client.getStudentsByStudentIds(List.of(STUDENT_ID, UNKNOWN_STUDENT_ID, STUDENT_ID)))
+                .expectNext(student(STUDENT_ID), student(STUDENT_ID))
+                .verifyComplete();
+    }
+
+    @Test
+    public void whenSubscriberRequestsFewStudents_thenStreamIsNotProducedAhead() {
+        StepVerifier.create(client.getAllStudents(), 0)
+                .thenRequest(5)
+                .expectNextCount(5)
+                .thenCancel()
+                .verify();
+
+        //the subscriber's demand reached the server as request(n) instead of the whole stream being sent
+        assertTrue(requested.get() < 10_000, "requested " + requested.get());
+    }
+}
@@ -0,0 +1,40 @@
+package com.champlain.enrollmentsservice.exceptionhandling;
+
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.InvalidEnrollmentRequestException;
+import com.champlain.enrollmentsservice.exceptionhandling.exceptions.StudentNotFoundException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ApplicationExceptionsTest {
+
+    @Test
+    public void whenStudentNotFound_thenErrorHasMessageButNoStackTrace() {
+        //act
+        StudentNotFoundException ex = new StudentNotFoundException("123");
+        ex.addSuppressed(new IllegalStateException("ignored"));
+
+        //assert
+        assertEquals("Student with id=123 is not found", ex.getMessage());
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(0, ex.getSuppressed().length);
+    }
+
+    @Test
+    public void whenConstantError_thenSameInstanceIsSharedWithUnchangedMessage() {
+        //act
+        Throwable first = ApplicationExceptions.<Throwable>missingStudentId().onErrorResume(Mono::just).block();
+        Throwable second = ApplicationExceptions.<Throwable>missingStudentId().onErrorResume(Mono::just).block();
+
+        //assert
+        assertSame(first, second);
+        assertEquals(InvalidEnrollmentRequestException.class, first.getClass());
+        assertEquals("Student Id is required", first.getMessage());
+        StepVerifier.create(ApplicationExceptions.missingSemester())
+                .expectErrorMessage("Semester is required")
+                .verify();
+    }
+}
@@ -0,0 +1,53 @@
+package com.champlain.enrollmentsservice.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    public void whenGenerated_thenItIsAVersion7UuidInTheUsualFormat() {
+        //act
+        String id = UuidV7Generator.nextString();
+
+        //assert
+        assertEquals(36, id.length());
+        UUID uuid = UUID.fromString(id);
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(Math.abs(System.currentTimeMillis() - timestamp) < 1_000);
+    }
+
+    @Test
+    public void whenGeneratedOneAfterTheOther_thenStringsAreStrictlyIncreasing() {
+        //arrange
+        String previous = UuidV7Generator.nextString();
+
+        //act & assert
+        for (int i = 0; i < 100_000; i++) {
+            String next = UuidV7Generator.nextString();
+            assertTrue(next.compareTo(previous) > 0, previous + " is not before " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void whenGeneratedConcurrently_thenIdsAreUnique() {
+        //arrange
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        //act
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(UuidV7Generator.nextString()));
+
+        //assert
+        assertEquals(200_000, ids.size());
+    }
+}
@@ -0,0 +1,107 @@
+package com.champlain.enrollmentsservice.presentationlayer;
+
+import com.champlain.enrollmentsservice.domainclientlayer.RequestDeadline;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDeadlineFilterTest {
+
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter(Duration.ofMillis(100));
+
+    private static Mono<Void> slowCall(AtomicBoolean cancelled) {
+        return Mono.<Void>never().doOnCancel(() -> cancelled.set(true));
+    }
+
+    @Test
+    public void whenPostRunsPastDefaultDeadline_thenItIsCancelledWith504() {
+        //arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/enrollments"));
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        //act
+        Mono<Void> filtered = filter.filter(exchange, e -> slowCall(cancelled));
+
+        //assert
+        StepVerifier.create(filtered)
+                .verifyComplete();
+        assertTrue(cancelled.get());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void whenHeaderHasNoTimeLeft_thenRequestIsNotHandled() {
+        //arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/enrollments")
+                .header(RequestDeadline.HEADER, "0"));
+        AtomicBoolean handled = new AtomicBoolean();
+
+        //act
+        Mono<Void> filtered = filter.filter(exchange, e -> Mono.fromRunnable(() -> handled.set(true)));
+
+        //assert
+        StepVerifier.create(filtered)
+                .verifyComplete();
+        assertFalse(handled.get());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void whenGetWithoutHeader_thenItHasNoDeadline() {
+        //arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/enrollments/stream"));
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        //act
+        Mono<Void> filtered = filter.filter(exchange, e -> slowCall(cancelled));
+
+        //assert
+        StepVerifier.create(filtered)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(300))
+                .thenCancel()
+                .verify();
+        assertTrue(cancelled.get());
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void whenBulkUploadRunsPastDefaultDeadline_thenItIsNotCancelled() {
+        //arrange
+        Flux<DataBuffer> slowLines = Flux.range(0, 3)
+                .delayElements(Duration.ofMillis(100))
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap("{}\n".getBytes(StandardCharsets.UTF_8)));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/enrollments/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(slowLines));
+        AtomicInteger linesRead = new AtomicInteger();
+
+        //act
+        Mono<Void> filtered = filter.filter(exchange, e -> e.getRequest().getBody()
+                .doOnNext(line -> linesRead.incrementAndGet())
+                .then());
+
+        //assert
+        StepVerifier.create(filtered)
+                .verifyComplete();
+        assertEquals(3, linesRead.get());
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+}
@@ -2,6 +2,7 @@ package com.champlain.enrollmentsservice.presentationlayer.enrollments;
 
 import com.champlain.enrollmentsservice.TestData;
 import com.champlain.enrollmentsservice.dataaccesslayer.EnrollmentRepository;
+import com.champlain.enrollmentsservice.dataaccesslayer.Semester;
 import com.champlain.enrollmentsservice.domainclientlayer.courses.CourseResponseModel;
 import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -14,10 +15,17 @@ import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
 import org.mockserver.model.MediaType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -46,6 +54,113 @@ class EnrollmentControllerIntegrationTest extends AbstractIntegrationClass {
     }
 
 
+    @Test
+    @Order(1)
+    public void whenGetEnrollmentPages_thenWalkAllEnrollmentsWithPageTokens() {
+        EnrollmentPageResponseModel firstPage = webTestClient.get()
+                .uri("/api/v1/enrollments/page?size=1")
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EnrollmentPageResponseModel.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(firstPage);
+        assertEquals(1, firstPage.enrollments().size());
+        assertNotNull(firstPage.nextPageToken());
+
+        EnrollmentPageResponseModel lastPage = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/enrollments/page")
+                        .queryParam("size", testData.dbSize)
+                        .queryParam("pageToken", firstPage.nextPageToken())
+                        .build())
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EnrollmentPageResponseModel.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(lastPage);
+        assertEquals(testData.dbSize - 1, lastPage.enrollments().size());
+        assertNull(lastPage.nextPageToken());
+        assertNotEquals(firstPage.enrollments().get(0).enrollmentId(), lastPage.enrollments().get(0).enrollmentId());
+    }
+
+    @Test
+    @Order(1)
+    public void whenGetEnrollmentPage_withInvalidSize_thenReturnUnprocessableEntity() {
+        webTestClient.get()
+                .uri("/api/v1/enrollments/page?size=0")
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    @Order(1)
+    public void whenGetEnrollmentPage_withSemesterWithoutYear_thenReturnUnprocessableEntity() {
+        webTestClient.get()
+                .uri("/api/v1/enrollments/page?semester=FALL")
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    @Order(1)
+    public void whenGetEnrollmentPage_withInvalidStudentId_thenReturnUnprocessableEntity() {
+        webTestClient.get()
+                .uri("/api/v1/enrollments/page?studentId=not-a-uuid")
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    @Order(1)
+    public void whenGetEnrollmentPage_withInvalidCourseId_thenReturnUnprocessableEntity() {
+        webTestClient.get()
+                .uri("/api/v1/enrollments/page?courseId=not-a-uuid")
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    @Order(1)
+    public void whenGetEnrollment_asJsonAndAsSmile_thenETagsDifferAndResponseVariesByAccept() {
+        //arrange
+        String enrollmentId = testData.enrollment1.getEnrollmentId();
+        org.springframework.http.MediaType smile = org.springframework.http.MediaType.parseMediaType("application/x-jackson-smile");
+
+        //act
+        String jsonETag = webTestClient.get()
+                .uri("/api/v1/enrollments/" + enrollmentId)
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult()
+                .getResponseHeaders()
+                .getETag();
+        String smileETag = webTestClient.get()
+                .uri("/api/v1/enrollments/" + enrollmentId)
+                .accept(smile)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(smile)
+                .expectHeader().value(HttpHeaders.VARY, vary -> assertTrue(vary.contains(HttpHeaders.ACCEPT)))
+                .expectBody().returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        //assert
+        assertNotNull(jsonETag);
+        assertNotNull(smileETag);
+        assertNotEquals(jsonETag, smileETag);
+    }
+
     @Test
     @Order(1)
     public void whenAddEnrollment_withNonExistingCourseId_thenReturnNotFound() {
@@ -166,6 +281,133 @@ class EnrollmentControllerIntegrationTest extends AbstractIntegrationClass {
     }
 
 
+    @Test
+    @Order(6)
+    public void whenAddEnrollmentsInBulk_thenReturnOneResultLinePerRequestLine() {
+        //arrange
+        try {
+            mockGetStudentByStudentIdSuccess(testData.student1ResponseModel);
+            mockGetCourseByCourseIdSuccess(testData.course1ResponseModel);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+        String studentId = testData.student1ResponseModel.studentId();
+        String courseId = testData.course1ResponseModel.courseId();
+
+        //act & assert
+        webTestClient.post()
+                .uri("/api/v1/enrollments/bulk")
+                .contentType(org.springframework.http.MediaType.APPLICATION_NDJSON)
+                .body(Flux.just(
+                        new EnrollmentRequestModel(2022, Semester.FALL, studentId, courseId),
+                        new EnrollmentRequestModel(1990, Semester.FALL, studentId, courseId),
+                        new EnrollmentRequestModel(2023, Semester.WINTER, studentId, courseId)), EnrollmentRequestModel.class)
+                .accept(org.springframework.http.MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EnrollmentBulkResponseModel.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(line -> line.line() == 0 && line.status() == 201 && line.enrollment().enrollmentYear() == 2022)
+                .expectNextMatches(line -> line.line() == 1 && line.status() == 422 && line.enrollment() == null)
+                .expectNextMatches(line -> line.line() == 2 && line.status() == 201 && line.enrollment().enrollmentYear() == 2023)
+                .verifyComplete();
+
+        StepVerifier.create(enrollmentRepository.count())
+                .expectNext(testData.dbSize + 3)
+                .verifyComplete();
+    }
+
+    @Test
+    @Order(7)
+    public void whenAddSameEnrollmentConcurrently_thenOnlyOneIsCreatedAndOthersConflict() {
+        //arrange
+        try {
+            mockGetStudentByStudentIdSuccess(testData.student1ResponseModel);
+            mockGetCourseByCourseIdSuccess(testData.course1ResponseModel);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+        int parallelRequests = 8;
+        EnrollmentRequestModel requestModel = new EnrollmentRequestModel(2024, Semester.WINTER,
+                testData.student1ResponseModel.studentId(), testData.course1ResponseModel.courseId());
+
+        //act
+        List<HttpStatusCode> statuses = Flux.range(0, parallelRequests)
+                .parallel(parallelRequests)
+                .runOn(Schedulers.boundedElastic())
+                .map(i -> webTestClient.post()
+                        .uri("/api/v1/enrollments")
+                        .body(Mono.just(requestModel), EnrollmentRequestModel.class)
+                        .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .returnResult(String.class)
+                        .getStatus())
+                .sequential()
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        //assert
+        assertNotNull(statuses);
+        assertEquals(1, statuses.stream().filter(status -> status.value() == HttpStatus.CREATED.value()).count());
+        assertEquals(parallelRequests - 1, statuses.stream().filter(status -> status.value() == HttpStatus.CONFLICT.value()).count());
+        StepVerifier.create(enrollmentRepository.count())
+                .expectNext(testData.dbSize + 4)
+                .verifyComplete();
+    }
+
+    @Test
+    @Order(8)
+    public void whenEnrollmentIsUnchangedOrUpdated_thenETagRevalidates() {
+        //arrange
+        try {
+            mockGetStudentByStudentIdSuccess(testData.student1ResponseModel);
+            mockGetCourseByCourseIdSuccess(testData.course1ResponseModel);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+        String enrollmentId = testData.enrollment1.getEnrollmentId();
+        String eTag = webTestClient.get()
+                .uri("/api/v1/enrollments/" + enrollmentId)
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .returnResult(EnrollmentResponseModel.class)
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(eTag);
+
+        //act & assert
+        webTestClient.get()
+                .uri("/api/v1/enrollments/" + enrollmentId)
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+
+        webTestClient.put()
+                .uri("/api/v1/enrollments/" + enrollmentId)
+                .body(Mono.just(new EnrollmentRequestModel(2025, Semester.FALL,
+                        testData.student1ResponseModel.studentId(), testData.course1ResponseModel.courseId())),
+                        EnrollmentRequestModel.class)
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/api/v1/enrollments/" + enrollmentId)
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, updatedETag -> assertNotEquals(eTag, updatedETag))
+                .expectBody(EnrollmentResponseModel.class)
+                .value(enrollment -> assertEquals(2025, enrollment.enrollmentYear()));
+    }
+
     private void mockGetCourseByCourseIdSuccess(CourseResponseModel model) throws JsonProcessingException {
         String jsonBody = objectMapper.writeValueAsString(model);
 
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import reactor.core.publisher.Flux;
@@ -44,7 +45,7 @@ public class EnrollmentControllerUnitTest {
         when(enrollmentService.getEnrollmentByEnrollmentId(NON_EXISTING_ENROLLMENT_ID))
                 .thenReturn(Mono.empty());
 
-        Mono<ResponseEntity<EnrollmentResponseModel>> result = enrollmentController.getEnrollmentByEnrollmentId(NON_EXISTING_ENROLLMENT_ID);
+        Mono<ResponseEntity<EnrollmentResponseModel>> result = enrollmentController.getEnrollmentByEnrollmentId(NON_EXISTING_ENROLLMENT_ID, new HttpHeaders());
 
         StepVerifier
                 .create(result)
@@ -57,7 +58,7 @@ public class EnrollmentControllerUnitTest {
 
     @Test
     public void whenGetEnrollmentByEnrollmentId_withInvalidEnrollmentId_ThenThrowInvalidEnrollmentIdException(){
-        Mono<ResponseEntity<EnrollmentResponseModel>> result = enrollmentController.getEnrollmentByEnrollmentId(INVALID_ENROLLMENT_ID);
+        Mono<ResponseEntity<EnrollmentResponseModel>> result = enrollmentController.getEnrollmentByEnrollmentId(INVALID_ENROLLMENT_ID, new HttpHeaders());
 
         StepVerifier
                 .create(result)
@@ -0,0 +1,79 @@
+package com.champlain.enrollmentsservice.presentationlayer.students;
+
+import com.champlain.enrollmentsservice.domainclientlayer.BlockingCalls;
+import com.champlain.enrollmentsservice.domainclientlayer.students.StudentResponseModel;
+import com.champlain.enrollmentsservice.presentationlayer.enrollments.AbstractIntegrationClass;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+import org.mockserver.model.MediaType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+   The blocking RestTemplate endpoints, with BlockHound installed (see BlockHoundTestIntegration):
+   a RestTemplate call left on the event loop fails the request instead of answering the 1000 students.
+ */
+class StudentControllerIntegrationTest extends AbstractIntegrationClass {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void mockGetStudentByRowIdSuccess() {
+        mockServerClient.when(HttpRequest.request().withPath("/api/v1/students/row/.*"))
+                .respond(
+                        HttpResponse.response("{\"studentId\":\"c3540a89-cb47-4c96-888e-ff96708db4d8\",\"firstName\":\"Christine\",\"lastName\":\"Gerard\",\"program\":\"History\"}")
+                                .withStatusCode(200)
+                                .withContentType(MediaType.APPLICATION_JSON)
+                );
+    }
+
+    //1000 calls one after the other outlast WebTestClient's default 5s
+    private WebTestClient slowWebTestClient() {
+        return webTestClient.mutate().responseTimeout(Duration.ofSeconds(60)).build();
+    }
+
+    private long offloaded(String operation) {
+        return meterRegistry.get(BlockingCalls.CALLS).tag("operation", operation).timer().count();
+    }
+
+    @Test
+    public void whenGet1000StudentsSyncLoop_thenStudentsAreFetchedOffTheEventLoop() {
+        //act
+        WebTestClient.ResponseSpec response = slowWebTestClient().get()
+                .uri("/api/v1/students/syncloop")
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange();
+
+        //assert
+        response.expectStatus().isOk()
+                .expectBodyList(StudentResponseModel.class)
+                .hasSize(1000);
+        assertEquals(1, offloaded("get1000StudentsSyncLoop"));
+        assertTrue(meterRegistry.find(BlockingCalls.GUARD_VIOLATIONS).timers().isEmpty());
+    }
+
+    @Test
+    public void whenGet1000StudentsSyncParallel_thenStudentsAreFetchedOffTheEventLoop() {
+        //act
+        WebTestClient.ResponseSpec response = slowWebTestClient().get()
+                .uri("/api/v1/students/syncparallel")
+                .accept(org.springframework.http.MediaType.APPLICATION_JSON)
+                .exchange();
+
+        //assert
+        response.expectStatus().isOk()
+                .expectBodyList(StudentResponseModel.class)
+                .hasSize(1000);
+        assertEquals(1, offloaded("get1000StudentsSyncParallel"));
+        assertTrue(meterRegistry.find(BlockingCalls.GUARD_VIOLATIONS).timers().isEmpty());
+    }
+}
@@ -0,0 +1,15 @@
+-- Switches an existing students table to binary ids (app.ids.storage=binary): student_id VARCHAR(36) -> BINARY(16).
+-- The bytes are the UUID in its usual order (UUID_TO_BIN without swap), the layout Hibernate reads and writes.
+-- Run it with the service stopped, then start the service with the binary-ids profile.
+USE `students-db`;
+
+ALTER TABLE students ADD COLUMN student_id_bin BINARY(16) NULL AFTER student_id;
+UPDATE students SET student_id_bin = UUID_TO_BIN(student_id) WHERE student_id IS NOT NULL;
+ALTER TABLE students DROP COLUMN student_id;
+ALTER TABLE students RENAME COLUMN student_id_bin TO student_id, ADD UNIQUE INDEX student_id (student_id);
+
+-- Back to string ids:
+-- ALTER TABLE students ADD COLUMN student_id_str VARCHAR(36) NULL AFTER student_id;
+-- UPDATE students SET student_id_str = BIN_TO_UUID(student_id) WHERE student_id IS NOT NULL;
+-- ALTER TABLE students DROP COLUMN student_id;
+-- ALTER TABLE students RENAME COLUMN student_id_str TO student_id, ADD UNIQUE INDEX student_id (student_id);
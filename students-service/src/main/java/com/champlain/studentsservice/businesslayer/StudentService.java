@@ -7,7 +7,10 @@ import java.util.List;
 public interface StudentService {
 
     List<StudentResponseModel> getStudents();
+    List<StudentResponseModel> getStudentsPage(int page, int size);
     StudentResponseModel getStudentByRowId(Integer id);
+    List<StudentResponseModel> getStudentsByRowIdRange(Integer from, Integer to);
     StudentResponseModel getStudentByStudentId(String studentId);
+    List<StudentResponseModel> getStudentsByStudentIds(List<String> studentIds);
 
 }
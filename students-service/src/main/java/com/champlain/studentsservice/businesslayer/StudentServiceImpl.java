@@ -5,9 +5,13 @@ import com.champlain.studentsservice.dataaccesslayer.StudentRepository;
 import com.champlain.studentsservice.datamapperlayer.StudentResponseMapper;
 import com.champlain.studentsservice.presentationlayer.StudentResponseModel;
 import com.champlain.studentsservice.utils.exceptions.NotFoundException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class StudentServiceImpl implements StudentService{
@@ -25,6 +29,13 @@ public class StudentServiceImpl implements StudentService{
         return studentResponseMapper.entityListToResponseModelList(studentRepository.findAll());
     }
 
+    @Override
+    public List<StudentResponseModel> getStudentsPage(int page, int size) {
+        //ordered by rowId so pages neither overlap nor skip students
+        return studentResponseMapper.entityListToResponseModelList(
+                studentRepository.findAllBy(PageRequest.of(page, size, Sort.by("id"))).getContent());
+    }
+
     @Override
     public StudentResponseModel getStudentByRowId(Integer id) {
         Student foundStudent = studentRepository.findById(id).orElse(null);
@@ -36,9 +47,18 @@ public class StudentServiceImpl implements StudentService{
         return studentResponseMapper.entityToResponseModel(foundStudent);
     }
 
+    @Override
+    public List<StudentResponseModel> getStudentsByRowIdRange(Integer from, Integer to) {
+        //missing rows are simply left out of the result
+        return studentResponseMapper.entityListToResponseModelList(
+                studentRepository.findAllByIdBetweenOrderByIdAsc(from, to));
+    }
+
     @Override
     public StudentResponseModel getStudentByStudentId(String studentId) {
-        Student foundStudent = studentRepository.findStudentByStudentIdentifier_StudentId(studentId);
+        Student foundStudent = toStudentId(studentId)
+                .map(studentRepository::findStudentByStudentIdentifier_StudentId)
+                .orElse(null);
 
         if (foundStudent == null) {
             throw new NotFoundException("Unknown studentId: " + studentId);
@@ -46,4 +66,23 @@ public class StudentServiceImpl implements StudentService{
 
         return studentResponseMapper.entityToResponseModel(foundStudent);
     }
+
+    @Override
+    public List<StudentResponseModel> getStudentsByStudentIds(List<String> studentIds) {
+        //unknown studentIds are simply left out of the result
+        return studentResponseMapper.entityListToResponseModelList(
+                studentRepository.findAllByStudentIdentifier_StudentIdIn(studentIds.stream()
+                        .map(StudentServiceImpl::toStudentId)
+                        .flatMap(Optional::stream)
+                        .toList()));
+    }
+
+    //studentIds in the REST api stay strings; one that isn't a UUID can't match any student
+    private static Optional<UUID> toStudentId(String studentId) {
+        try {
+            return Optional.of(UUID.fromString(studentId));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package com.champlain.studentsservice.dataaccesslayer;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+   How student_id is stored, app.ids.storage:
+   - string (default): VARCHAR(36), the canonical form, as in schema-mysql.sql and schema-h2.sql
+   - binary: BINARY(16), see the schema-*-binary.sql files and the binary-ids profile.
+     Existing rows are converted with migrations/student-id-to-binary-mysql.sql
+   Hibernate maps every java.util.UUID with the preferred uuid jdbc type, so this is the only switch needed.
+ */
+@Configuration
+public class IdStorageConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer uuidJdbcTypeCustomizer(@Value("${app.ids.storage:string}") String idStorage) {
+        String jdbcType = "binary".equals(idStorage) ? "BINARY" : "VARCHAR";
+        return properties -> properties.put(AvailableSettings.PREFERRED_UUID_JDBC_TYPE, jdbcType);
+    }
+}
@@ -1,5 +1,6 @@
 package com.champlain.studentsservice.dataaccesslayer;
 
+import com.champlain.studentsservice.utils.UuidV7Generator;
 import jakarta.persistence.Embeddable;
 import lombok.Getter;
 
@@ -8,10 +9,11 @@ import java.util.UUID;
 @Embeddable
 @Getter
 public class StudentIdentifier {
-    private String studentId;
+    //VARCHAR(36) or, with app.ids.storage=binary, BINARY(16) (see IdStorageConfig)
+    private UUID studentId;
 
     public StudentIdentifier() {
-        this.studentId = UUID.randomUUID().toString();
+        this.studentId = UuidV7Generator.next();
     }
 
 }
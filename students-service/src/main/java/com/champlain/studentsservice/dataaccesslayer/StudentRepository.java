@@ -1,8 +1,23 @@
 package com.champlain.studentsservice.dataaccesslayer;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 public interface StudentRepository extends JpaRepository<Student, Integer> {
 
-    Student findStudentByStudentIdentifier_StudentId(String studentId);
+    Student findStudentByStudentIdentifier_StudentId(UUID studentId);
+
+    //single IN query for a batch of studentIds
+    List<Student> findAllByStudentIdentifier_StudentIdIn(Collection<UUID> studentIds);
+
+    //contiguous block of rows in one primary key range scan, both ends included
+    List<Student> findAllByIdBetweenOrderByIdAsc(Integer from, Integer to);
+
+    //one page of all the students, without the count query findAll(Pageable) would add
+    Slice<Student> findAllBy(Pageable pageable);
 }
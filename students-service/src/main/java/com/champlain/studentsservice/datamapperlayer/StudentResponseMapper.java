@@ -10,7 +10,7 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface StudentResponseMapper {
 
-    @Mapping(expression = "java(student.getStudentIdentifier().getStudentId())", target = "studentId")
+    @Mapping(expression = "java(student.getStudentIdentifier().getStudentId().toString())", target = "studentId")
     StudentResponseModel entityToResponseModel(Student student);
 
     List<StudentResponseModel> entityListToResponseModelList(List<Student> students);
@@ -5,7 +5,10 @@ import com.champlain.studentsservice.utils.exceptions.InvalidInputException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -14,6 +17,13 @@ import java.util.List;
 @RequestMapping("api/v1/students")
 public class StudentController {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_RANGE_SIZE = 1000;
+
+    //JSON by default, Smile (Jackson's binary JSON) to the clients asking for it
+    private static final String JSON = "application/json";
+    private static final String SMILE = "application/x-jackson-smile";
+
     private final StudentService studentService;
 
     public StudentController(StudentService studentService) {
@@ -21,24 +31,45 @@ public class StudentController {
     }
 
     @GetMapping(value = "",
-    produces = "application/json")
+    produces = {JSON, SMILE})
     public ResponseEntity<List<StudentResponseModel>> getStudents() {
         return ResponseEntity.ok().body(studentService.getStudents());
     }
 
     //get by database rowId
-    @GetMapping(value = "/row/{id}", produces = "application/json")
+    @GetMapping(value = "/row/{id}", produces = {JSON, SMILE})
     public ResponseEntity<StudentResponseModel> getStudentByRowId(@PathVariable Integer id) {
         return ResponseEntity.ok().body(studentService.getStudentByRowId(id));
     }
 
+    //get the rows from rowId "from" to rowId "to", both included, with one query
+    @GetMapping(value = "/row/range", produces = {JSON, SMILE})
+    public ResponseEntity<List<StudentResponseModel>> getStudentsByRowIdRange(@RequestParam Integer from, @RequestParam Integer to) {
+        if (from < 1 || to < from) {
+            throw new InvalidInputException("Invalid row range: from=" + from + ", to=" + to);
+        }
+        if (to - from + 1 > MAX_RANGE_SIZE) {
+            throw new InvalidInputException("Too many rows in range: " + (to - from + 1) + ", max is " + MAX_RANGE_SIZE);
+        }
+        return ResponseEntity.ok().body(studentService.getStudentsByRowIdRange(from, to));
+    }
+
     //get by studentId
-    @GetMapping(value = "/{studentId}", produces = "application/json")
+    @GetMapping(value = "/{studentId}", produces = {JSON, SMILE})
     public ResponseEntity<StudentResponseModel> getStudentByStudentId(@PathVariable String studentId) {
         if (studentId.length() != 36) {
             throw new InvalidInputException("Invalid studentId: " + studentId);
         }
         return ResponseEntity.ok().body(studentService.getStudentByStudentId(studentId));
     }
-    
+
+    //get many by studentId with one query, unknown studentIds are left out of the response
+    @PostMapping(value = "/batch", consumes = {JSON, SMILE}, produces = {JSON, SMILE})
+    public ResponseEntity<List<StudentResponseModel>> getStudentsByStudentIds(@RequestBody List<String> studentIds) {
+        if (studentIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidInputException("Too many studentIds in batch: " + studentIds.size() + ", max is " + MAX_BATCH_SIZE);
+        }
+        return ResponseEntity.ok().body(studentService.getStudentsByStudentIds(studentIds));
+    }
+
 }
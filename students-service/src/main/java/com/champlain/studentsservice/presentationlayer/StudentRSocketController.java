@@ -0,0 +1,93 @@
+package com.champlain.studentsservice.presentationlayer;
+
+import com.champlain.studentsservice.businesslayer.StudentService;
+import com.champlain.studentsservice.utils.exceptions.NotFoundException;
+import io.rsocket.exceptions.InvalidException;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.IntFunction;
+
+/*
+   The lookups enrollments-service makes, over RSocket (spring.rsocket.server.port) instead of one HTTP exchange each:
+
+   students.{studentId}         request-response, completes empty for an unknown studentId
+   students.row.{id}            request-response by database rowId, errors for an unknown rowId
+   students                     request-stream of all the students
+   students.rows.{from}.{to}    request-stream of the rows from rowId "from" to "to", both included
+   students.batch               request-channel, studentIds in, the known students out
+
+   The streams only query the next PAGE_SIZE students once the requester's request(n) has used up the previous page,
+   so a slow consumer holds back the queries instead of the whole result being loaded and buffered.
+   JPA calls are blocking, they run on the boundedElastic scheduler, never on the RSocket event loop.
+ */
+@Controller
+public class StudentRSocketController {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_RANGE_SIZE = 1000;
+
+    private final StudentService studentService;
+
+    public StudentRSocketController(StudentService studentService) {
+        this.studentService = studentService;
+    }
+
+    @MessageMapping("students.{studentId}")
+    public Mono<StudentResponseModel> getStudentByStudentId(@DestinationVariable String studentId) {
+        if (studentId.length() != 36) {
+            return Mono.error(new InvalidException("Invalid studentId: " + studentId));
+        }
+        return blocking(() -> studentService.getStudentByStudentId(studentId))
+                .onErrorResume(NotFoundException.class, ex -> Mono.empty());
+    }
+
+    @MessageMapping("students.row.{id}")
+    public Mono<StudentResponseModel> getStudentByRowId(@DestinationVariable Integer id) {
+        return blocking(() -> studentService.getStudentByRowId(id));
+    }
+
+    @MessageMapping("students")
+    public Flux<StudentResponseModel> getStudents() {
+        return pages(page -> studentService.getStudentsPage(page, PAGE_SIZE))
+                .takeWhile(page -> !page.isEmpty())
+                .concatMapIterable(page -> page, 1);
+    }
+
+    @MessageMapping("students.rows.{from}.{to}")
+    public Flux<StudentResponseModel> getStudentsByRowIdRange(@DestinationVariable int from, @DestinationVariable int to) {
+        if (from < 1 || to < from || to - from + 1 > MAX_RANGE_SIZE) {
+            return Flux.error(new InvalidException("Invalid row range: from=" + from + ", to=" + to));
+        }
+        int pages = (to - from) / PAGE_SIZE + 1;
+        return pages(page -> {
+                    int pageFrom = from + page * PAGE_SIZE;
+                    return studentService.getStudentsByRowIdRange(pageFrom, Math.min(pageFrom + PAGE_SIZE - 1, to));
+                })
+                .take(pages)
+                .concatMapIterable(page -> page, 1);
+    }
+
+    @MessageMapping("students.batch")
+    public Flux<StudentResponseModel> getStudentsByStudentIds(Flux<String> studentIds) {
+        return studentIds.buffer(PAGE_SIZE)
+                .concatMap(batch -> blocking(() -> studentService.getStudentsByStudentIds(batch)), 0)
+                .concatMapIterable(students -> students, 1);
+    }
+
+    //page 0, 1, 2... each one queried only when requested (concatMap without prefetch)
+    private static Flux<List<StudentResponseModel>> pages(IntFunction<List<StudentResponseModel>> query) {
+        return Flux.range(0, Integer.MAX_VALUE)
+                .concatMap(page -> blocking(() -> query.apply(page)), 0);
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,92 @@
+package com.champlain.studentsservice.utils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/*
+   enrollments-service sends the milliseconds its caller has left in X-Request-Timeout. A request arriving with
+   none left isn't handled (504). The others run in a read-only transaction with that timeout, rounded up to whole
+   seconds, which JPA passes on to every query as its JDBC query timeout: a query still running when the caller
+   has given up is stopped by the database and answered 504 (see GlobalControllerExceptionHandler).
+   Requests without the header run as before.
+ */
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Timeout";
+
+    private final PlatformTransactionManager transactionManager;
+
+    public RequestDeadlineFilter(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long timeoutMillis = timeoutMillis(request.getHeader(HEADER));
+        if (timeoutMillis == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (timeoutMillis <= 0) {
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Request deadline exceeded");
+            return;
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.min(Integer.MAX_VALUE, (timeoutMillis + 999) / 1000));
+        try {
+            transaction.executeWithoutResult(status -> {
+                try {
+                    chain.doFilter(request, response);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                } catch (ServletException ex) {
+                    throw new ServletExceptionWrapper(ex);
+                }
+                //only reads, and a query that timed out already marked it rollback-only: rolling back
+                //here spares the UnexpectedRollbackException a commit would throw after the 504
+                status.setRollbackOnly();
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } catch (ServletExceptionWrapper ex) {
+            throw ex.getCause();
+        }
+    }
+
+    //null when the header is missing or not a number
+    private static Long timeoutMillis(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static final class ServletExceptionWrapper extends RuntimeException {
+
+        private ServletExceptionWrapper(ServletException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized ServletException getCause() {
+            return (ServletException) super.getCause();
+        }
+    }
+}
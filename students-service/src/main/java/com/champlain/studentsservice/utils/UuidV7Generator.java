@@ -0,0 +1,47 @@
+package com.champlain.studentsservice.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+   studentIds of new students (StudentIdentifier): time-ordered UUIDs (version 7, RFC 9562), 48 bits of unix
+   time in ms, a 12 bit counter and 62 random bits. They sort in creation order both as the VARCHAR(36) and
+   as the BINARY(16) student_id, so InnoDB appends new students to the unique index rather than splitting
+   random pages of it while the table grows.
+   The counter is bumped with a CAS, unique across threads within a millisecond.
+ */
+public final class UuidV7Generator {
+
+    private static final int COUNTER_BITS = 12;
+
+    //unix ms << COUNTER_BITS | counter of the last generated id
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7Generator() {
+    }
+
+    public static UUID next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long timeAndCounter = nextTimeAndCounter(random);
+
+        long mostSigBits = (timeAndCounter >>> COUNTER_BITS) << 16       //unix_ts_ms
+                | 0x7000L                                                //version 7
+                | (timeAndCounter & ((1L << COUNTER_BITS) - 1));        //rand_a used as counter
+        long leastSigBits = (random.nextLong() >>> 2) | 0x8000000000000000L; //variant 10, rand_b
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static long nextTimeAndCounter(ThreadLocalRandom random) {
+        while (true) {
+            long last = LAST.get();
+            long now = System.currentTimeMillis() << COUNTER_BITS;
+            long next = now > last
+                    ? now | random.nextInt(1 << (COUNTER_BITS - 1))
+                    : last + 1;
+            if (LAST.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
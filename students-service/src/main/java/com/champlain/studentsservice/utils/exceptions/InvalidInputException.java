@@ -1,6 +1,6 @@
 package com.champlain.studentsservice.utils.exceptions;
 
-public class InvalidInputException extends RuntimeException{
+public class InvalidInputException extends StacklessException {
 
     public InvalidInputException() {}
 
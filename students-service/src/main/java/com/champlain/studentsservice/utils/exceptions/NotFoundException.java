@@ -1,6 +1,6 @@
 package com.champlain.studentsservice.utils.exceptions;
 
-public class NotFoundException extends RuntimeException{
+public class NotFoundException extends StacklessException {
 
     public NotFoundException() {}
 
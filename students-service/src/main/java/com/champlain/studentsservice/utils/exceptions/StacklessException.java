@@ -0,0 +1,25 @@
+package com.champlain.studentsservice.utils.exceptions;
+
+/*
+   Base of the expected errors that end up as a 404 or 422 response.
+   Unknown ids and bad ranges are routine input, so they skip filling in the stack trace
+   (and suppression, so an instance can safely be shared).
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    protected StacklessException() {
+        super(null, null, false, false);
+    }
+
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected StacklessException(Throwable cause) {
+        super(cause == null ? null : cause.toString(), cause, false, false);
+    }
+
+    protected StacklessException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
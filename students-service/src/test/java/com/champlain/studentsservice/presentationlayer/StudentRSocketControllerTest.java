@@ -0,0 +1,118 @@
+package com.champlain.studentsservice.presentationlayer;
+
+import com.champlain.studentsservice.businesslayer.StudentService;
+import io.rsocket.exceptions.InvalidException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentRSocketControllerTest {
+
+    @InjectMocks
+    private StudentRSocketController studentRSocketController;
+
+    @Mock
+    private StudentService studentService;
+
+    private static List<StudentResponseModel> students(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> StudentResponseModel.builder()
+                        .studentId(UUID.randomUUID().toString())
+                        .firstName("Christine")
+                        .lastName("Gerard")
+                        .program("History")
+                        .build())
+                .toList();
+    }
+
+    @Test
+    public void whenPartOfTheStudentsAreRequested_thenOnlyTheirPagesAreQueried() {
+        //arrange
+        when(studentService.getStudentsPage(anyInt(), eq(100))).thenAnswer(invocation -> students(100));
+
+        //act
+        StepVerifier.create(studentRSocketController.getStudents(), 0)
+                .thenRequest(150)
+                .expectNextCount(150)
+                //assert
+                .then(() -> {
+                    verify(studentService).getStudentsPage(0, 100);
+                    verify(studentService).getStudentsPage(1, 100);
+                    verify(studentService, never()).getStudentsPage(2, 100);
+                })
+                .thenRequest(100)
+                .expectNextCount(100)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        verify(studentService).getStudentsPage(2, 100);
+        verify(studentService, never()).getStudentsPage(3, 100);
+    }
+
+    @Test
+    public void whenLastPageIsShort_thenStudentsCompleteAfterAnEmptyPage() {
+        //arrange
+        when(studentService.getStudentsPage(0, 100)).thenReturn(students(100));
+        when(studentService.getStudentsPage(1, 100)).thenReturn(students(30));
+        when(studentService.getStudentsPage(2, 100)).thenReturn(List.of());
+
+        //act
+        StepVerifier.create(studentRSocketController.getStudents())
+                .expectNextCount(130)
+                .verifyComplete();
+
+        //assert
+        verify(studentService, times(3)).getStudentsPage(anyInt(), eq(100));
+    }
+
+    @Test
+    public void whenPartOfARowRangeIsRequested_thenOnlyItsFirstPageIsQueried() {
+        //arrange
+        when(studentService.getStudentsByRowIdRange(anyInt(), anyInt()))
+                .thenAnswer(invocation -> students(invocation.<Integer>getArgument(1) - invocation.<Integer>getArgument(0) + 1));
+
+        //act
+        StepVerifier.create(studentRSocketController.getStudentsByRowIdRange(1, 250), 0)
+                .thenRequest(50)
+                .expectNextCount(50)
+                //assert
+                .then(() -> {
+                    verify(studentService).getStudentsByRowIdRange(1, 100);
+                    verify(studentService, never()).getStudentsByRowIdRange(101, 200);
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(200)
+                .verifyComplete();
+
+        verify(studentService).getStudentsByRowIdRange(101, 200);
+        verify(studentService).getStudentsByRowIdRange(201, 250);
+        verify(studentService, times(3)).getStudentsByRowIdRange(anyInt(), anyInt());
+    }
+
+    @Test
+    public void whenRowRangeIsTooLarge_thenNoPageIsQueried() {
+        //act
+        StepVerifier.create(studentRSocketController.getStudentsByRowIdRange(1, 1001))
+                .expectError(InvalidException.class)
+                .verify();
+
+        //assert
+        verify(studentService, never()).getStudentsByRowIdRange(anyInt(), anyInt());
+    }
+}
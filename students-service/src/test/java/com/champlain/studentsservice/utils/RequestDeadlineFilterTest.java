@@ -0,0 +1,110 @@
+package com.champlain.studentsservice.utils;
+
+import com.champlain.studentsservice.dataaccesslayer.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.rsocket.server.port=0")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@Import(RequestDeadlineFilterTest.SlowQueryController.class)
+class RequestDeadlineFilterTest {
+
+    private static final AtomicInteger handled = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    //handlers whose queries outlive a deadline of 1s, the shortest one the filter sets
+    @RestController
+    static class SlowQueryController {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final StudentRepository studentRepository;
+
+        SlowQueryController(JdbcTemplate jdbcTemplate, StudentRepository studentRepository) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.studentRepository = studentRepository;
+        }
+
+        @GetMapping("/test/handled")
+        public String handled() {
+            handled.incrementAndGet();
+            return "handled";
+        }
+
+        //10^10 rows, still running when the query timeout stops it
+        @GetMapping("/test/slow-query")
+        public BigDecimal slowQuery() {
+            return jdbcTemplate.queryForObject(
+                    "SELECT SUM(a.X * b.X) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b", BigDecimal.class);
+        }
+
+        //the deadline has passed by the time the query starts
+        @GetMapping("/test/late-query")
+        public long lateQuery() throws InterruptedException {
+            Thread.sleep(1100);
+            return studentRepository.count();
+        }
+    }
+
+    @BeforeEach
+    public void reset() {
+        handled.set(0);
+    }
+
+    @Test
+    public void whenNoTimeIsLeft_thenRequestIsNotHandled() throws Exception {
+        //act
+        ResultActions result = mockMvc.perform(get("/test/handled").header(RequestDeadlineFilter.HEADER, "0"));
+
+        //assert
+        result.andExpect(status().isGatewayTimeout());
+        assertEquals(0, handled.get());
+    }
+
+    @Test
+    public void whenTimeIsLeft_thenRequestIsHandled() throws Exception {
+        //act
+        ResultActions result = mockMvc.perform(get("/test/handled").header(RequestDeadlineFilter.HEADER, "500"));
+
+        //assert
+        result.andExpect(status().isOk());
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    public void whenQueryRunsPastTheDeadline_thenItIsStoppedWith504() throws Exception {
+        //act
+        ResultActions result = mockMvc.perform(get("/test/slow-query").header(RequestDeadlineFilter.HEADER, "500"));
+
+        //assert
+        result.andExpect(status().isGatewayTimeout());
+    }
+
+    @Test
+    public void whenQueryStartsPastTheDeadline_thenItIsNotRunAnd504() throws Exception {
+        //act
+        ResultActions result = mockMvc.perform(get("/test/late-query").header(RequestDeadlineFilter.HEADER, "500"));
+
+        //assert
+        result.andExpect(status().isGatewayTimeout());
+    }
+}